@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 不依赖 k6 的压测驱动（JDK 11+ 单文件源码直接运行），请求模式与 list-detail.js 相同：
+ * VUS 个虚拟用户各自循环「随机列表页（跳过首页快照）+ 随机详情」，每个用户同一时刻只有一个请求在途，即 VUS 个并发连接。
+ * 前 WARMUP 内启动全部用户且不计入结果；之后 DURATION 内的请求计入。
+ * 结果以 k6 --summary-export 的同名字段写出（http_reqs.rate、http_req_duration p(50)/p(99)、http_req_failed.value），
+ * 由 run.sh 统一生成结果表。
+ * <p>
+ * 用法：java LoadDriver.java BASE_URL VUS DURATION_SECONDS WARMUP_SECONDS SUMMARY_JSON
+ */
+public class LoadDriver {
+
+    private static final int ROWS = 10000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] TYPES = {"card", "video", "chart"};
+    /**
+     * 延迟直方图：0.1ms 一档，最长 10s（请求超时）
+     */
+    private static final int BUCKETS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int vus = Integer.parseInt(args[1]);
+        long duration = Long.parseLong(args[2]) * 1_000_000_000L;
+        long warmup = Long.parseLong(args[3]) * 1_000_000_000L;
+        Path summary = Path.of(args[4]);
+
+        // 回调在独立线程池上执行，请求立即失败时也不会在同一栈上递归
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "load-driver");
+            t.setDaemon(true);
+            return t;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup;
+        long end = measureFrom + duration;
+        AtomicLong[] histogram = new AtomicLong[BUCKETS];
+        Arrays.setAll(histogram, i -> new AtomicLong());
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(vus);
+
+        Runnable[] users = new Runnable[vus];
+        for (int u = 0; u < vus; u++) {
+            users[u] = new Runnable() {
+                boolean detail;
+
+                @Override
+                public void run() {
+                    long now = System.nanoTime();
+                    if (now >= end) {
+                        done.countDown();
+                        return;
+                    }
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    String type = TYPES[random.nextInt(TYPES.length)];
+                    String path = detail
+                            ? "/api/" + type + "/detail?id=" + (1 + random.nextInt(ROWS))
+                            : "/api/" + type + "/list?page=" + (2 + random.nextInt(ROWS / PAGE_SIZE - 1)) + "&size=" + PAGE_SIZE;
+                    detail = !detail;
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Accept-Encoding", "gzip")
+                            .timeout(Duration.ofSeconds(10))
+                            .build();
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenCompleteAsync((response, e) -> {
+                        long finished = System.nanoTime();
+                        if (now >= measureFrom && finished < end) {
+                            histogram[(int) Math.min(BUCKETS - 1, (finished - now) / 100_000)].incrementAndGet();
+                            if (e == null && response.statusCode() == 200) {
+                                ok.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        }
+                        run();
+                    }, executor);
+                }
+            };
+        }
+        // 预热期内均匀启动，避免瞬间建立全部连接超出 accept 队列
+        for (int u = 0; u < vus; u++) {
+            long due = start + warmup / 2 * u / vus;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            }
+            users[u].run();
+        }
+        done.await();
+
+        long total = ok.get() + failed.get();
+        double seconds = duration / 1e9;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(summary))) {
+            out.printf("{\"metrics\": {\"http_reqs\": {\"count\": %d, \"rate\": %.3f}, "
+                            + "\"http_req_duration\": {\"p(50)\": %.3f, \"p(99)\": %.3f}, "
+                            + "\"http_req_failed\": {\"value\": %.6f}}}%n",
+                    total, total / seconds, percentile(histogram, total, 0.50), percentile(histogram, total, 0.99),
+                    total == 0 ? 0.0 : failed.get() / (double) total);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 直方图中第 q 分位所在档的上沿（毫秒）
+     */
+    private static double percentile(AtomicLong[] histogram, long total, double q) {
+        long rank = (long) Math.ceil(total * q);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i].get();
+            if (seen >= rank && rank > 0) {
+                return (i + 1) / 10.0;
+            }
+        }
+        return 0;
+    }
+}
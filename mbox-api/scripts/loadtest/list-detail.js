@@ -0,0 +1,33 @@
+// 平台线程 / 虚拟线程对比压测（k6）：每个 VU 循环请求一个列表页（跳过首页快照，每次都查库）与一个详情。
+// 由 run.sh 调用，也可单独运行：k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 -e DURATION=60s list-detail.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ROWS = parseInt(__ENV.ROWS || '10000', 10);
+const PAGE_SIZE = 20;
+const TYPES = ['card', 'video', 'chart'];
+
+export const options = {
+    scenarios: {
+        closed: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '200', 10),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    discardResponseBodies: true,
+};
+
+const params = { headers: { 'Accept-Encoding': 'gzip' }, timeout: '10s' };
+
+export default function () {
+    const type = TYPES[Math.floor(Math.random() * TYPES.length)];
+    const page = 2 + Math.floor(Math.random() * (ROWS / PAGE_SIZE - 1));
+    const list = http.get(`${BASE_URL}/api/${type}/list?page=${page}&size=${PAGE_SIZE}`, Object.assign({ tags: { name: 'list' } }, params));
+    check(list, { 'list 200': (r) => r.status === 200 });
+    const id = 1 + Math.floor(Math.random() * ROWS);
+    const detail = http.get(`${BASE_URL}/api/${type}/detail?id=${id}`, Object.assign({ tags: { name: 'detail' } }, params));
+    check(detail, { 'detail 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,146 @@
+#!/usr/bin/env bash
+# 平台线程 / 虚拟线程对比压测：对每种线程模式 × Hikari 连接池大小 × 并发连接数启动一次应用并运行一轮压测，
+# 结果追加到 results/<时间>.md（吞吐、延迟分位、错误率，以及压测期间 Hikari 等待连接数与 JVM 线程数的峰值）。
+#
+# 数据库（DB）：
+#   mysql（默认）外部 MySQL 8，需先执行 schema.sql 与 seed.sql，连接参数见 DB_URL / DB_USER / DB_PASSWORD；
+#   h2            应用进程内的 H2 内存库（MySQL 模式），启动时执行 src/test/resources/schema-h2.sql 与 seed-h2.sql，无需外部依赖。
+# 压测驱动（LOADGEN）：安装了 k6 时为 k6（list-detail.js），否则为 JDK 自带 HttpClient 的 LoadDriver.java，请求模式相同。
+# 虚拟线程模式需 JDK 21：JAVA_HOME 低于 21 时跳过 vt 并在结果中注明。
+#
+# 用法：JAVA_HOME=/path/to/jdk21 ./run.sh
+# 每次启动应用后先以最大并发数跑 APP_WARMUP（结果丢弃），使各组合都在 JIT 与缓存预热后计时；
+# LoadDriver 每轮另有 WARMUP 用于逐步建立连接，不计入结果。
+#
+# 可用环境变量覆盖：DB=h2 POOLS="10 20 32 64" VUS="200 1000 2000" DURATION=60s WARMUP=10s APP_WARMUP=60s
+#                   MODES="platform vt" LOADGEN=java
+#                   DB_URL=... DB_USER=... DB_PASSWORD=...
+set -euo pipefail
+
+cd "$(dirname "$0")"
+HERE=$(pwd)
+ROOT=$(cd ../.. && pwd)
+PORT=${PORT:-18081}
+DB=${DB:-mysql}
+POOLS=${POOLS:-"10 20 32 64"}
+VUS=${VUS:-"200 1000 2000"}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-10s}
+APP_WARMUP=${APP_WARMUP:-60s}
+MODES=${MODES:-"platform vt"}
+JAVA=${JAVA_HOME:?JAVA_HOME must point to a JDK (21 for the vt mode)}/bin/java
+JAVA_MAJOR=$("$JAVA" -XshowSettings:properties -version 2>&1 | awk -F' = ' '/java.specification.version/ {print $2}')
+if command -v k6 > /dev/null; then LOADGEN=${LOADGEN:-k6}; else LOADGEN=${LOADGEN:-java}; fi
+
+mkdir -p results build
+RESULT=results/$(date +%Y%m%d-%H%M%S)-$DB.md
+NOTES=()
+
+RUN_MODES=()
+for mode in $MODES; do
+    if [[ $mode == vt && $JAVA_MAJOR -lt 21 ]]; then
+        NOTES+=("vt skipped: JAVA_HOME is JDK $JAVA_MAJOR, virtual threads need JDK 21")
+        continue
+    fi
+    RUN_MODES+=("$mode")
+done
+
+# 每种模式一个 jar：默认构建（平台线程）与 -Pvirtual-threads 构建（Java 21 + Connector/J 9.x）
+for mode in "${RUN_MODES[@]}"; do
+    PROFILE=()
+    [[ $mode == vt ]] && PROFILE+=("-Pvirtual-threads")
+    (cd "$ROOT" && JAVA_HOME=$JAVA_HOME mvn -B -q -DskipTests "${PROFILE[@]}" clean package \
+        && cp target/mbox-api-*.jar "$HERE/build/$mode.jar")
+done
+
+DB_ARGS=()
+LAUNCH=()
+if [[ $DB == h2 ]]; then
+    # H2 为 test 依赖，不在 jar 内：以 PropertiesLauncher 从 loader.path 追加
+    (cd "$ROOT" && mvn -B -q dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile="$HERE/build/cp.txt")
+    H2_JAR=$(tr ':' '\n' < build/cp.txt | grep '/h2-[0-9.]*\.jar$')
+    LAUNCH+=("-Dloader.path=$H2_JAR" "org.springframework.boot.loader.launch.PropertiesLauncher")
+    DB_ARGS+=("--spring.datasource.driver-class-name=org.h2.Driver"
+        "--spring.datasource.url=jdbc:h2:mem:mbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+        "--spring.datasource.username=sa" "--spring.datasource.password="
+        "--spring.sql.init.mode=always" "--spring.sql.init.encoding=UTF-8"
+        "--spring.sql.init.schema-locations=file:$ROOT/src/test/resources/schema-h2.sql"
+        "--spring.sql.init.data-locations=file:$HERE/seed-h2.sql")
+else
+    [[ -n "${DB_URL:-}" ]] && DB_ARGS+=("--spring.datasource.url=$DB_URL")
+    [[ -n "${DB_USER:-}" ]] && DB_ARGS+=("--spring.datasource.username=$DB_USER")
+    [[ -n "${DB_PASSWORD:-}" ]] && DB_ARGS+=("--spring.datasource.password=$DB_PASSWORD")
+fi
+
+load() {
+    # 后台运行一轮压测：load <vus> <duration> <summary>
+    if [[ $LOADGEN == k6 ]]; then
+        k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$1" -e DURATION="$2" --summary-export "$3" list-detail.js > /dev/null &
+    else
+        "$JAVA" LoadDriver.java "http://localhost:$PORT" "$1" "${2%s}" "${WARMUP%s}" "$3" &
+    fi
+}
+
+metric() {
+    # 取 /actuator/prometheus 中某个指标（可带标签过滤）的当前值
+    curl -s "http://localhost:$PORT/actuator/prometheus" | grep "^$1" | grep -- "${2:-}" | awk '{print $2}' | head -1
+}
+
+{
+    echo "# list-detail, db $DB, loadgen $LOADGEN, duration $DURATION (app warmup $APP_WARMUP, ramp $WARMUP), $("$JAVA" -version 2>&1 | head -1)"
+    echo "# $(nproc) CPU, $(free -g | awk '/^Mem:/ {print $2}') GB RAM; app, database and load generator on the same host"
+    for note in "${NOTES[@]}"; do echo "# $note"; done
+    echo
+    echo "| mode | pool | vus | req/s | p50 ms | p99 ms | errors | max hikari pending | max live threads |"
+    echo "|------|------|-----|-------|--------|--------|--------|--------------------|------------------|"
+} > "$RESULT"
+
+for mode in "${RUN_MODES[@]}"; do
+    for pool in $POOLS; do
+        PROFILE_ARGS=()
+        [[ $mode == vt ]] && PROFILE_ARGS+=("--spring.profiles.active=vt")
+        CP=("-jar" "build/$mode.jar")
+        [[ ${#LAUNCH[@]} -gt 0 ]] && CP=("-cp" "build/$mode.jar" "${LAUNCH[@]}")
+        "$JAVA" "${CP[@]}" --server.port="$PORT" "${PROFILE_ARGS[@]}" "${DB_ARGS[@]}" \
+            --spring.datasource.hikari.maximum-pool-size="$pool" --spring.datasource.hikari.minimum-idle="$pool" \
+            --mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl \
+            > "build/app-$mode-$pool.log" 2>&1 &
+        APP=$!
+        until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+            kill -0 $APP 2> /dev/null || { echo "app failed to start, see build/app-$mode-$pool.log"; exit 1; }
+            sleep 1
+        done
+
+        MAX_VUS=$(tr ' ' '\n' <<< "$VUS" | sort -n | tail -1)
+        load "$MAX_VUS" "$APP_WARMUP" build/warmup.json
+        wait $! || true
+
+        for vus in $VUS; do
+            SUMMARY=build/summary-$mode-$pool-$vus.json
+            load "$vus" "$DURATION" "$SUMMARY"
+            LOAD=$!
+            pending=0
+            threads=0
+            while kill -0 $LOAD 2> /dev/null; do
+                p=$(metric hikaricp_connections_pending 'pool="mbox-hikari"'); p=${p%.*}
+                t=$(metric jvm_threads_live_threads); t=${t%.*}
+                (( ${p:-0} > pending )) && pending=${p:-0}
+                (( ${t:-0} > threads )) && threads=${t:-0}
+                sleep 1
+            done
+            wait $LOAD || true
+            python3 - "$SUMMARY" "$mode" "$pool" "$vus" "$pending" "$threads" >> "$RESULT" <<'PY'
+import json, sys
+path, mode, pool, vus, pending, threads = sys.argv[1:]
+m = json.load(open(path))['metrics']
+d = m['http_req_duration']
+print(f"| {mode} | {pool} | {vus} | {m['http_reqs']['rate']:.0f} | {d['p(50)']:.1f} | {d['p(99)']:.1f} "
+      f"| {m['http_req_failed']['value'] * 100:.2f}% | {pending} | {threads} |")
+PY
+        done
+        kill $APP
+        wait $APP 2> /dev/null || true
+    done
+done
+
+cat "$RESULT"
@@ -0,0 +1,19 @@
+-- 压测数据（嵌入式 H2，MySQL 模式）：与 seed.sql 相同的数据量与内容，由 run.sh 的 DB=h2 模式在 schema-h2.sql 之后执行
+INSERT INTO content_card (id, title, subtitle, content, author, pub_date, category, created_at)
+SELECT r."X", CONCAT('压测卡片 ', r."X"), '压测数据', REPEAT('月光宝盒压测正文。', 40), 'loadtest', '2026-01-01', 'bench',
+       DATEADD(MINUTE, -r."X", CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 10000) r;
+
+INSERT INTO content_video (id, title, subtitle, content, duration, resolution, author, created_at)
+SELECT r."X", CONCAT('压测视频 ', r."X"), '压测数据', REPEAT('月光宝盒压测简介。', 20), '03:20', '1080p', 'loadtest',
+       DATEADD(MINUTE, -r."X", CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 10000) r;
+
+INSERT INTO content_chart (id, title, subtitle, chart_type, period, unit, created_at)
+SELECT r."X", CONCAT('压测图表 ', r."X"), '压测数据', CASE WHEN MOD(r."X", 2) = 0 THEN 'line' ELSE 'bar' END, '7d', 'ms',
+       DATEADD(MINUTE, -r."X", CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 10000) r;
+
+INSERT INTO content_chart_data (chart_id, x_label, y_value, sort_order)
+SELECT r."X" / 50 + 1, CONCAT('p', MOD(r."X", 50)), 100 + MOD(r."X" * 7919, 1000), MOD(r."X", 50)
+FROM SYSTEM_RANGE(0, 499999) r;
@@ -0,0 +1,32 @@
+-- 压测数据（MySQL 8+）：每种组件 10000 行，图表各 50 个数据点。在 schema.sql 之后执行，会先清空三张主表
+USE mbox;
+SET SESSION cte_max_recursion_depth = 100000;
+
+DELETE FROM content_card;
+DELETE FROM content_video;
+DELETE FROM content_chart;
+
+INSERT INTO content_card (id, title, subtitle, content, author, pub_date, category, created_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10000)
+SELECT n, CONCAT('压测卡片 ', n), '压测数据', REPEAT('月光宝盒压测正文。', 40), 'loadtest', '2026-01-01', 'bench',
+       NOW() - INTERVAL n MINUTE
+FROM seq;
+
+INSERT INTO content_video (id, title, subtitle, content, duration, resolution, author, created_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10000)
+SELECT n, CONCAT('压测视频 ', n), '压测数据', REPEAT('月光宝盒压测简介。', 20), '03:20', '1080p', 'loadtest',
+       NOW() - INTERVAL n MINUTE
+FROM seq;
+
+INSERT INTO content_chart (id, title, subtitle, chart_type, period, unit, created_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10000)
+SELECT n, CONCAT('压测图表 ', n), '压测数据', IF(n % 2 = 0, 'line', 'bar'), '7d', 'ms', NOW() - INTERVAL n MINUTE
+FROM seq;
+
+-- 跳过数据点触发器的逐行刷新（见 schema.sql）
+SET @mbox_bulk_ingest = 1;
+INSERT INTO content_chart_data (chart_id, x_label, y_value, sort_order)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 499999)
+SELECT n DIV 50 + 1, CONCAT('p', n % 50), 100 + (n * 7919) % 1000, n % 50
+FROM seq;
+SET @mbox_bulk_ingest = NULL;
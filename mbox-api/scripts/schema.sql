@@ -15,7 +15,10 @@ CREATE TABLE IF NOT EXISTS content_card (
     author      VARCHAR(64) DEFAULT '',
     pub_date    VARCHAR(32) DEFAULT '',
     category    VARCHAR(64) DEFAULT '',
-    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP
+    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_created_at_id (created_at, id),
+    INDEX idx_updated_at_id (updated_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- 视频组件
@@ -30,7 +33,10 @@ CREATE TABLE IF NOT EXISTS content_video (
     duration    VARCHAR(32) DEFAULT '',
     resolution  VARCHAR(32) DEFAULT '',
     author      VARCHAR(64) DEFAULT '',
-    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP
+    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX idx_created_at_id (created_at, id),
+    INDEX idx_updated_at_id (updated_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- 图表组件
@@ -41,7 +47,11 @@ CREATE TABLE IF NOT EXISTS content_chart (
     chart_type  VARCHAR(32) DEFAULT 'bar',
     period      VARCHAR(32) DEFAULT '',
     unit        VARCHAR(32) DEFAULT '',
-    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP
+    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    data_updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_created_at_id (created_at, id),
+    INDEX idx_updated_at_id (updated_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- 图表数据明细（子表）
@@ -51,5 +61,75 @@ CREATE TABLE IF NOT EXISTS content_chart_data (
     x_label     VARCHAR(256) NOT NULL,
     y_value     DOUBLE NOT NULL,
     sort_order  INT DEFAULT 0,
+    ts          DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '采样时间，时间分桶聚合（/api/chart/rollup）按此分桶',
+    INDEX idx_chart_sort (chart_id, sort_order),
+    INDEX idx_chart_ts (chart_id, ts),
     FOREIGN KEY (chart_id) REFERENCES content_chart(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 图表数据点的时间分桶聚合（可选持久化）：mbox.rollup.persist=true 时每次批量写入后累加，冷启动时代替扫描明细。
+-- bucket_start 为桶起点（本地时间，按 bucket_width 秒对齐，日桶从 0 点开始）
+CREATE TABLE IF NOT EXISTS content_chart_rollup (
+    chart_id     BIGINT NOT NULL,
+    bucket_width INT NOT NULL COMMENT '桶宽（秒）',
+    bucket_start DATETIME NOT NULL,
+    cnt          BIGINT NOT NULL,
+    sum_value    DOUBLE NOT NULL,
+    min_value    DOUBLE NOT NULL,
+    max_value    DOUBLE NOT NULL,
+    PRIMARY KEY (chart_id, bucket_width, bucket_start),
+    FOREIGN KEY (chart_id) REFERENCES content_chart(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 删除记录（墓碑），供增量同步（/api/{type}/sync）下发删除；由下方触发器写入
+CREATE TABLE IF NOT EXISTS content_tombstone (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    content_type VARCHAR(16) NOT NULL,
+    content_id   BIGINT NOT NULL,
+    deleted_at   DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_type_deleted_at_id (content_type, deleted_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 删除主表行时写入墓碑（级联删除的 content_chart_data 不触发触发器）
+DROP TRIGGER IF EXISTS trg_content_card_tombstone;
+CREATE TRIGGER trg_content_card_tombstone AFTER DELETE ON content_card
+    FOR EACH ROW INSERT INTO content_tombstone (content_type, content_id) VALUES ('card', OLD.id);
+DROP TRIGGER IF EXISTS trg_content_video_tombstone;
+CREATE TRIGGER trg_content_video_tombstone AFTER DELETE ON content_video
+    FOR EACH ROW INSERT INTO content_tombstone (content_type, content_id) VALUES ('video', OLD.id);
+DROP TRIGGER IF EXISTS trg_content_chart_tombstone;
+CREATE TRIGGER trg_content_chart_tombstone AFTER DELETE ON content_chart
+    FOR EACH ROW INSERT INTO content_tombstone (content_type, content_id) VALUES ('chart', OLD.id);
+
+-- 数据点变化时刷新所属图表的 data_updated_at（同时触发其 updated_at 的 ON UPDATE），增量同步据此只下发变化的序列。
+-- 批量写入（POST /api/chart/data）在会话中设置 @mbox_bulk_ingest 跳过逐行更新，每次写入只刷新一次各图表
+DROP TRIGGER IF EXISTS trg_content_chart_data_insert;
+CREATE TRIGGER trg_content_chart_data_insert AFTER INSERT ON content_chart_data
+    FOR EACH ROW UPDATE content_chart SET data_updated_at = CURRENT_TIMESTAMP(3) WHERE id = NEW.chart_id AND @mbox_bulk_ingest IS NULL;
+DROP TRIGGER IF EXISTS trg_content_chart_data_update;
+CREATE TRIGGER trg_content_chart_data_update AFTER UPDATE ON content_chart_data
+    FOR EACH ROW UPDATE content_chart SET data_updated_at = CURRENT_TIMESTAMP(3) WHERE id = NEW.chart_id AND @mbox_bulk_ingest IS NULL;
+DROP TRIGGER IF EXISTS trg_content_chart_data_delete;
+CREATE TRIGGER trg_content_chart_data_delete AFTER DELETE ON content_chart_data
+    FOR EACH ROW UPDATE content_chart SET data_updated_at = CURRENT_TIMESTAMP(3) WHERE id = OLD.chart_id AND @mbox_bulk_ingest IS NULL;
+
+-- 列表排序 / 游标 seek / 版本探测均按 (created_at DESC, id DESC)，idx_created_at_id 覆盖该排序，无需 filesort。
+-- 已有库升级时手动执行：
+-- ALTER TABLE content_card  ADD INDEX idx_created_at_id (created_at, id);
+-- ALTER TABLE content_video ADD INDEX idx_created_at_id (created_at, id);
+-- ALTER TABLE content_chart ADD INDEX idx_created_at_id (created_at, id);
+--
+-- 增量同步按 (updated_at ASC, id ASC) seek，idx_updated_at_id 覆盖该排序。已有库升级时手动执行（之后再执行上方的墓碑表与触发器）：
+-- ALTER TABLE content_card  ADD COLUMN updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), ADD INDEX idx_updated_at_id (updated_at, id);
+-- ALTER TABLE content_video ADD COLUMN updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), ADD INDEX idx_updated_at_id (updated_at, id);
+-- ALTER TABLE content_chart ADD COLUMN updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+--                           ADD COLUMN data_updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), ADD INDEX idx_updated_at_id (updated_at, id);
+
+-- 时间分桶聚合。已有库升级时手动执行（已有数据点的 ts 为执行时间），之后执行上方的 content_chart_rollup 建表：
+-- ALTER TABLE content_chart_data ADD COLUMN ts DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), ADD INDEX idx_chart_ts (chart_id, ts);
+-- 开启 mbox.rollup.persist 前由明细回填聚合表（桶宽与 ChartRollup.LEVELS 一致：5 分钟 / 1 小时 / 1 天）：
+-- INSERT INTO content_chart_rollup (chart_id, bucket_width, bucket_start, cnt, sum_value, min_value, max_value)
+-- SELECT chart_id, w.width, '1970-01-01' + INTERVAL (TIMESTAMPDIFF(SECOND, '1970-01-01', ts) DIV w.width * w.width) SECOND AS b,
+--        COUNT(*), SUM(y_value), MIN(y_value), MAX(y_value)
+-- FROM content_chart_data JOIN (SELECT 300 AS width UNION ALL SELECT 3600 UNION ALL SELECT 86400) w
+-- GROUP BY chart_id, w.width, b;
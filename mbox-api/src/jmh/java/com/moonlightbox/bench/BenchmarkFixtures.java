@@ -0,0 +1,165 @@
+package com.moonlightbox.bench;
+
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.entity.ContentChart;
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.entity.ContentVideo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试数据：以 scripts/data-mock.sql 中的模拟数据为模板，按需放大到任意行数
+ */
+public final class BenchmarkFixtures {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 2, 17, 12, 0);
+
+    private static final String[][] CARDS = {
+            {"月光下的设计哲学", "探索极简 with 留白的平衡", "推荐",
+                    "## 设计哲学\n\n在月光银的基调下，我们追求**极简**与**留白**的平衡。\n\n- 减少视觉噪音\n- 突出核心内容\n- 适配深色模式",
+                    "https://picsum.photos/800/450?random=1", "月光编辑部", "2024-02-01", "设计"},
+            {"SwiftUI 动态解析实践", "配置驱动 UI 的落地方案", "技术",
+                    "本文介绍如何通过 **API 配置** 和 **字段映射** 实现列表与详情的动态解析，告别硬编码。",
+                    null, "开发组", "2024-02-15", "iOS"},
+            {"产品需求文档导读", "从 PRD 到实现的闭环", "产品",
+                    "从 PRD 到上线，如何保持产品与研发的对齐？本文梳理 **配置即所得** 的协作方式。",
+                    null, "产品组", "2024-02-10", "产品"},
+    };
+
+    private static final String[][] VIDEOS = {
+            {"月光宝盒功能演示", "列表、详情与配置页全流程", "视频",
+                    "本视频演示首页列表、点击下钻详情、以及配置页的 API 与字段映射设置。",
+                    "https://example.com/demo.mp4", "03:24", "1080p", "演示中心"},
+            {"动态字段映射详解", "如何配置 ui_title 与后端 key", "教程",
+                    "讲解在 APP 内配置 **ui_title**、**ui_subtitle** 等与后端 JSON 键名的对应关系。",
+                    "https://example.com/mapping.mp4", "05:10", "720p", "开发组"},
+            {"深色模式与主题", "月光银与深邃蓝的搭配", "设计",
+                    "介绍 AppTheme 中月光银、深邃蓝及圆角 12pt 卡片的视觉规范。",
+                    null, "12:00", "4K", "设计组"},
+    };
+
+    private static final String[][] CHARTS = {
+            {"近7日活跃用户趋势", "每日 DAU 变化（真实采样模拟）", "line", "7d", "人"},
+            {"功能模块访问占比", "首页核心模块流量结构", "pie", "today", "%"},
+            {"接口 P99 响应耗时", "list/detail 接口稳定性监控", "bar", "24h", "ms"},
+    };
+
+    private static final String[][] CHART_LABELS = {
+            {"02-11", "02-12", "02-13", "02-14", "02-15", "02-16", "02-17"},
+            {"card", "video", "chart"},
+            {"card-list", "card-detail", "video-list", "video-detail", "chart-list", "chart-detail"},
+    };
+
+    private static final double[][] CHART_VALUES = {
+            {1280, 1365, 1422, 1578, 1496, 1683, 1760},
+            {46, 31, 23},
+            {118, 162, 135, 188, 142, 205},
+    };
+
+    public static List<ContentCard> cards(int n) {
+        List<ContentCard> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String[] t = CARDS[i % CARDS.length];
+            ContentCard e = new ContentCard();
+            e.setId((long) i + 1);
+            e.setTitle(t[0]);
+            e.setSubtitle(t[1]);
+            e.setImageUrl("https://picsum.photos/400/240?random=" + (i + 1));
+            e.setBadge(t[2]);
+            e.setContent(t[3]);
+            e.setMediaUrl(t[4]);
+            e.setAuthor(t[5]);
+            e.setPubDate(t[6]);
+            e.setCategory(t[7]);
+            e.setCreatedAt(BASE_TIME.minusMinutes(i));
+            list.add(e);
+        }
+        return list;
+    }
+
+    public static List<ContentVideo> videos(int n) {
+        List<ContentVideo> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String[] t = VIDEOS[i % VIDEOS.length];
+            ContentVideo e = new ContentVideo();
+            e.setId((long) i + 1);
+            e.setTitle(t[0]);
+            e.setSubtitle(t[1]);
+            e.setImageUrl("https://picsum.photos/400/240?random=" + (i + 1));
+            e.setBadge(t[2]);
+            e.setContent(t[3]);
+            e.setMediaUrl(t[4]);
+            e.setDuration(t[5]);
+            e.setResolution(t[6]);
+            e.setAuthor(t[7]);
+            e.setCreatedAt(BASE_TIME.minusMinutes(i));
+            list.add(e);
+        }
+        return list;
+    }
+
+    public static List<ContentChart> charts(int n) {
+        List<ContentChart> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String[] t = CHARTS[i % CHARTS.length];
+            ContentChart e = new ContentChart();
+            e.setId((long) i + 1);
+            e.setTitle(t[0]);
+            e.setSubtitle(t[1]);
+            e.setChartType(t[2]);
+            e.setPeriod(t[3]);
+            e.setUnit(t[4]);
+            e.setCreatedAt(BASE_TIME.minusMinutes(i));
+            list.add(e);
+        }
+        return list;
+    }
+
+    /**
+     * 为每个图表生成与模拟数据同形的子表数据，key 为 chartId
+     */
+    public static Map<Long, List<ContentChartData>> chartData(List<ContentChart> charts) {
+        Map<Long, List<ContentChartData>> map = new HashMap<>();
+        long id = 1;
+        for (ContentChart chart : charts) {
+            int t = (int) ((chart.getId() - 1) % CHARTS.length);
+            List<ContentChartData> rows = new ArrayList<>();
+            for (int i = 0; i < CHART_LABELS[t].length; i++) {
+                ContentChartData d = new ContentChartData();
+                d.setId(id++);
+                d.setChartId(chart.getId());
+                d.setXLabel(CHART_LABELS[t][i]);
+                d.setYValue(CHART_VALUES[t][i]);
+                d.setSortOrder(i + 1);
+                rows.add(d);
+            }
+            map.put(chart.getId(), rows);
+        }
+        return map;
+    }
+
+    /**
+     * 与前端 extendInfo 协议一致的 JSON 串，字段取自模拟卡片 / 视频 / 图表
+     */
+    public static String[] extendInfos() {
+        return new String[]{
+                "{\"author\":\"月光编辑部\",\"pubDate\":\"2024-02-01\",\"category\":\"设计\",\"readCount\":1024,"
+                        + "\"tags\":[\"设计\",\"极简\"]}",
+                "{\"duration\":\"03:24\",\"resolution\":\"1080p\",\"author\":\"演示中心\",\"playCount\":5321,"
+                        + "\"hd\":true}",
+                "{\"chartType\":\"line\",\"period\":\"7d\",\"unit\":\"人\",\"max\":1760.5,"
+                        + "\"axis\":{\"x\":\"日期\",\"y\":\"DAU\"}}",
+        };
+    }
+
+    /**
+     * 详情接口可能收到的 id 参数形态
+     */
+    public static String[] idParams() {
+        return new String[]{"1", "42", " 7 ", "1,1", "1024,1024", "abc", "", "9223372036854775807"};
+    }
+}
@@ -0,0 +1,113 @@
+package com.moonlightbox.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.bench.BenchmarkFixtures;
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.entity.ContentChart;
+import com.moonlightbox.entity.ContentChartData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse&lt;PageResult&lt;...&gt;&gt; 的 Jackson 序列化开销
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ApiResponse<PageResult<CardListItemDTO>> cardPage;
+    private ApiResponse<PageResult<ChartListItemDTO>> chartPage;
+    private ApiResponse<PageResult<ChartListItemDTO>> chartCompactPage;
+
+    @Setup
+    public void setup() {
+        List<CardListItemDTO> cards = new ArrayList<>();
+        for (ContentCard e : BenchmarkFixtures.cards(size)) {
+            CardListItemDTO dto = new CardListItemDTO();
+            dto.setId(String.valueOf(e.getId()));
+            dto.setTitle(e.getTitle());
+            dto.setSubtitle(e.getSubtitle());
+            dto.setImageUrl(e.getImageUrl());
+            dto.setBadge(e.getBadge());
+            cards.add(dto);
+        }
+        cardPage = ApiResponse.ok(new PageResult<>(cards, 1000, 1, size));
+
+        List<ContentChart> charts = BenchmarkFixtures.charts(size);
+        Map<Long, List<ContentChartData>> data = BenchmarkFixtures.chartData(charts);
+        List<ChartListItemDTO> chartItems = new ArrayList<>();
+        for (ContentChart e : charts) {
+            ChartListItemDTO dto = new ChartListItemDTO();
+            dto.setId(String.valueOf(e.getId()));
+            dto.setTitle(e.getTitle());
+            dto.setSubtitle(e.getSubtitle());
+            dto.setChartType(e.getChartType());
+            dto.setPeriod(e.getPeriod());
+            dto.setUnit(e.getUnit());
+            List<ContentChartData> rows = data.get(e.getId());
+            String[] labels = new String[rows.size()];
+            double[] values = new double[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                labels[i] = rows.get(i).getXLabel();
+                values[i] = rows.get(i).getYValue();
+            }
+            dto.setChartData(new ChartSeries(labels, values));
+            chartItems.add(dto);
+        }
+        chartPage = ApiResponse.ok(new PageResult<>(chartItems, 1000, 1, size));
+
+        List<ChartListItemDTO> compactItems = new ArrayList<>();
+        for (ChartListItemDTO item : chartItems) {
+            ChartListItemDTO dto = new ChartListItemDTO();
+            dto.setId(item.getId());
+            dto.setTitle(item.getTitle());
+            dto.setSubtitle(item.getSubtitle());
+            dto.setChartType(item.getChartType());
+            dto.setPeriod(item.getPeriod());
+            dto.setUnit(item.getUnit());
+            dto.setChartData(item.getChartData().compact());
+            compactItems.add(dto);
+        }
+        chartCompactPage = ApiResponse.ok(new PageResult<>(compactItems, 1000, 1, size));
+    }
+
+    @Benchmark
+    public byte[] cardListPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cardPage);
+    }
+
+    @Benchmark
+    public byte[] chartListPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(chartPage);
+    }
+
+    @Benchmark
+    public byte[] chartListPageCompact() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(chartCompactPage);
+    }
+}
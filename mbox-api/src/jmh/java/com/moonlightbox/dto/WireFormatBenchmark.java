@@ -0,0 +1,93 @@
+package com.moonlightbox.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.moonlightbox.bench.BenchmarkFixtures;
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.entity.ContentChart;
+import com.moonlightbox.entity.ContentChartData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse&lt;PageResult&lt;ChartListItemDTO&gt;&gt;（size=100）按 JSON / CBOR / Smile 序列化的耗时与字节数。
+ * <p>
+ * 每个图表的序列由模拟数据循环放大到 points 个点（y 带扰动，避免全部为整数值）；各格式的字节数在初始化时打印。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int SIZE = 100;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"points", "compact"})
+    private String chartFormat;
+
+    @Param({"7", "96"})
+    private int points;
+
+    private ObjectMapper mapper;
+    private ApiResponse<PageResult<ChartListItemDTO>> page;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        List<ContentChart> charts = BenchmarkFixtures.charts(SIZE);
+        Map<Long, List<ContentChartData>> data = BenchmarkFixtures.chartData(charts);
+        List<ChartListItemDTO> items = new ArrayList<>(SIZE);
+        for (ContentChart e : charts) {
+            ChartListItemDTO dto = new ChartListItemDTO();
+            dto.setId(String.valueOf(e.getId()));
+            dto.setTitle(e.getTitle());
+            dto.setSubtitle(e.getSubtitle());
+            dto.setChartType(e.getChartType());
+            dto.setPeriod(e.getPeriod());
+            dto.setUnit(e.getUnit());
+            List<ContentChartData> rows = data.get(e.getId());
+            String[] labels = new String[points];
+            double[] values = new double[points];
+            for (int i = 0; i < points; i++) {
+                ContentChartData row = rows.get(i % rows.size());
+                labels[i] = i < rows.size() ? row.getXLabel() : row.getXLabel() + "#" + i / rows.size();
+                values[i] = row.getYValue() * (1 + (i % 13) / 97.0);
+            }
+            ChartSeries series = new ChartSeries(labels, values);
+            dto.setChartData("compact".equals(chartFormat) ? series.compact() : series);
+            items.add(dto);
+        }
+        page = ApiResponse.ok(new PageResult<>(items, 1000, 1, SIZE));
+        System.out.printf("%n[%s %s points=%d] bytes = %d%n", format, chartFormat, points, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,109 @@
+package com.moonlightbox.rollup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间分桶聚合查询的耗时与原始点数无关：rawPoints 个点均匀分布在最近 30 天，分别以 24h/1h、7d/6h、30d/1d 查询。
+ * <p>
+ * rollup 为 {@link ChartRollup#query}（只读取聚合槽）；scanRaw 为对照组，在内存中的 ts / y 数组上按同一窗口逐点聚合，
+ * 代表不使用聚合时的下限（实际从数据库扫描明细还要加上读取与传输开销）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ChartRollupBenchmark {
+
+    private static final long DAY = 86400;
+    private static final long NOW = LocalDateTime.of(2026, 10, 1, 12, 0).toEpochSecond(ZoneOffset.UTC);
+
+    @Param({"100000", "1000000", "10000000"})
+    private int rawPoints;
+
+    /**
+     * period/bucket
+     */
+    @Param({"24h/1h", "7d/6h", "30d/1d"})
+    private String window;
+
+    private ChartRollup rollup;
+    private long[] ts;
+    private double[] values;
+    private long period;
+    private long bucket;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] parts = window.split("/");
+        period = seconds(parts[0]);
+        bucket = seconds(parts[1]);
+
+        Random random = new Random(42);
+        rollup = new ChartRollup("30d");
+        ts = new long[rawPoints];
+        values = new double[rawPoints];
+        long from = NOW - 30 * DAY;
+        for (int i = 0; i < rawPoints; i++) {
+            ts[i] = from + 30 * DAY * i / rawPoints;
+            values[i] = 1000 + random.nextGaussian() * 100;
+            rollup.add(ts[i], values[i]);
+        }
+    }
+
+    @Benchmark
+    public ChartRollup.Result rollup() {
+        return rollup.query(NOW, period, bucket);
+    }
+
+    @Benchmark
+    public double[] scanRaw() {
+        int n = (int) (period / bucket);
+        long start = Math.floorDiv(NOW, bucket) - n + 1;
+        long[] counts = new long[n];
+        double[] sums = new double[n];
+        double[] mins = new double[n];
+        double[] maxs = new double[n];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < ts.length; i++) {
+            long b = Math.floorDiv(ts[i], bucket) - start;
+            if (b >= 0 && b < n) {
+                int k = (int) b;
+                double v = values[i];
+                counts[k]++;
+                sums[k] += v;
+                mins[k] = Math.min(mins[k], v);
+                maxs[k] = Math.max(maxs[k], v);
+            }
+        }
+        return sums;
+    }
+
+    private static long seconds(String text) {
+        long n = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 'h' -> n * 3600;
+            case 'd' -> n * DAY;
+            default -> n * 60;
+        };
+    }
+}
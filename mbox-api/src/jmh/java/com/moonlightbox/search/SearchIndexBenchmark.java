@@ -0,0 +1,138 @@
+package com.moonlightbox.search;
+
+import com.moonlightbox.bench.BenchmarkFixtures;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.entity.ContentVideo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 搜索索引在 1M 文档（card / video 各半）上的全量构建耗时（单次）与查询延迟。
+ * <p>
+ * 文档以模拟数据为模板，正文追加 {@value #EXTRA_WORDS} 个取自合成中文词表（{@value #VOCABULARY} 词，
+ * 按幂律分布抽取，固定种子）的词，使词频分布接近真实语料；查询分为高频词、低频词与混合三类。
+ * 构建与索引常驻约需 2GB 堆，fork 时指定 -Xmx3g。
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchIndexBenchmark {
+
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int EXTRA_WORDS = 24;
+
+    /**
+     * 合成语料：模板字段共享，每个文档只额外持有追加的正文
+     */
+    @State(Scope.Benchmark)
+    public static class Corpus {
+        final List<ContentCard> cards = BenchmarkFixtures.cards(16);
+        final List<ContentVideo> videos = BenchmarkFixtures.videos(16);
+        final String[] vocabulary = new String[VOCABULARY];
+        final String[] extra = new String[DOCUMENTS];
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(42);
+            for (int i = 0; i < VOCABULARY; i++) {
+                char[] word = new char[2 + random.nextInt(2)];
+                for (int c = 0; c < word.length; c++) {
+                    // 常用汉字区间
+                    word[c] = (char) (0x4E00 + random.nextInt(3500));
+                }
+                vocabulary[i] = new String(word);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int d = 0; d < DOCUMENTS; d++) {
+                sb.setLength(0);
+                for (int w = 0; w < EXTRA_WORDS; w++) {
+                    // r^3 使靠前的词远比靠后的词常见
+                    double r = random.nextDouble();
+                    sb.append(vocabulary[(int) (r * r * r * VOCABULARY)]).append(' ');
+                }
+                extra[d] = sb.toString();
+            }
+        }
+
+        Segment build() {
+            SegmentBuilder builder = new SegmentBuilder();
+            for (int d = 0; d < DOCUMENTS; d++) {
+                if ((d & 1) == 0) {
+                    ContentCard e = cards.get(d / 2 % cards.size());
+                    builder.add(ContentType.CARD, d, e.getTitle(), e.getSubtitle(), e.getContent() + extra[d],
+                            e.getAuthor(), e.getCategory());
+                } else {
+                    ContentVideo e = videos.get(d / 2 % videos.size());
+                    builder.add(ContentType.VIDEO, d, e.getTitle(), e.getSubtitle(), e.getContent() + extra[d],
+                            e.getAuthor(), null);
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"common", "rare", "mixed"})
+        String query;
+
+        @Param({"10"})
+        int k;
+
+        SearchIndex index;
+        String text;
+
+        @Setup(Level.Trial)
+        public void setup(Corpus corpus) {
+            index = new SearchIndex(8);
+            long start = System.nanoTime();
+            Segment segment = corpus.build();
+            index.reset(segment);
+            System.out.printf("%n[index] documents = %d, terms = %d, build = %d ms%n", index.size(), segment.termCount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            String[] vocabulary = corpus.vocabulary;
+            text = switch (query) {
+                case "common" -> "月光设计";
+                case "rare" -> vocabulary[VOCABULARY - 1];
+                default -> "月光 " + vocabulary[VOCABULARY / 10] + " " + vocabulary[VOCABULARY - 1];
+            };
+            System.out.printf("[%s] query = %s, matched = %d%n", query, text, index.search(text, null, k).matched());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public SearchIndex.Result search(Query q) {
+        return q.index.search(q.text, null, q.k);
+    }
+
+    /**
+     * 全量构建（单次）：分词、倒排表累积与定长化，不含读库
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Segment build(Corpus corpus) {
+        return corpus.build();
+    }
+}
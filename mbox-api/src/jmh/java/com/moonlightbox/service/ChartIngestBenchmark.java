@@ -0,0 +1,110 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.entity.ContentChartData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 数据点批量写入的持续吞吐（points/s）：请求线程以每批 requestPoints 个点调用 offer，缓冲区满时退避重试，
+ * 因此稳态吞吐即后台线程的写入速度。
+ * <p>
+ * 数据库为嵌入式内存 H2（MySQL 模式，含外键），写入路径与线上相同（事务 + JdbcTemplate batch insert + 每次写入刷新图表）；
+ * 结束时打印实际写入行数与被拒绝（429）的批次数。H2 没有 rewriteBatchedStatements，MySQL 上的多值 INSERT 另有收益；
+ * 内存表增长到数十万行后 H2 自身的插入与 GC 开销明显上升，后几轮迭代的吞吐主要受此限制。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChartIngestBenchmark {
+
+    private static final int CHARTS = 16;
+    private static final int REQUEST_POINTS = 1000;
+
+    @Param({"500", "2000"})
+    private int batchSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ChartIngestService service;
+    private List<ContentChartData> request;
+    private long rejectedBatches;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:ingest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE content_chart (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(256), "
+                + "updated_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), "
+                + "data_updated_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3))");
+        jdbcTemplate.execute("CREATE TABLE content_chart_data (id BIGINT AUTO_INCREMENT PRIMARY KEY, chart_id BIGINT NOT NULL, "
+                + "x_label VARCHAR(256) NOT NULL, y_value DOUBLE NOT NULL, sort_order INT DEFAULT 0, ts DATETIME(3) NOT NULL, "
+                + "INDEX idx_chart_sort (chart_id, sort_order), FOREIGN KEY (chart_id) REFERENCES content_chart(id) ON DELETE CASCADE)");
+        for (int i = 0; i < CHARTS; i++) {
+            jdbcTemplate.update("INSERT INTO content_chart (title) VALUES (?)", "chart-" + i);
+        }
+
+        service = new ChartIngestService(null, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), event -> {
+        }, new SimpleMeterRegistry(), 100_000, batchSize, Duration.ofMillis(200), 10_000, 5, Duration.ofMillis(100));
+        service.start();
+
+        request = new ArrayList<>(REQUEST_POINTS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < REQUEST_POINTS; i++) {
+            ContentChartData p = new ContentChartData();
+            p.setChartId((long) (i % CHARTS) + 1);
+            p.setXLabel("t" + i);
+            p.setYValue(1000 + (i % 97) * 1.5);
+            p.setSortOrder(i);
+            p.setTs(now);
+            request.add(p);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        service.stop();
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content_chart_data", Long.class);
+        System.out.printf("%n[batchSize=%d] rows written = %d, rejected requests (429) = %d%n", batchSize, rows, rejectedBatches);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUEST_POINTS)
+    public void ingest() {
+        while (!service.offer(request)) {
+            rejectedBatches++;
+            // 429 后客户端退避重试
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.moonlightbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.bench.BenchmarkFixtures;
+import com.moonlightbox.cache.CompressedBodyCache;
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.config.CacheProperties;
+import com.moonlightbox.dto.BatchDetailDTO;
+import com.moonlightbox.dto.CardDetailDTO;
+import com.moonlightbox.dto.CardListItemDTO;
+import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.util.GzipUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 单个响应的 CPU 开销：未压缩 JSON、逐请求 gzip（与 Tomcat 相同的默认压缩级别）、预压缩缓存命中。
+ * <p>
+ * payload 为 card 列表页（重复的 picsum 图片 URL）或 card 批量详情（正文为模拟数据 markdown 放大到约 4KB）；
+ * 各表示的字节数（即线上传输量）在初始化时打印；放大的正文由重复段落组成，压缩率高于真实文章。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    @Param({"list", "detail"})
+    private String payload;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ContentCardService cardService = new ContentCardService(null, null, null, null);
+
+    private ApiResponse<?> body;
+    private CompressedBodyCache cache;
+    private String etag;
+
+    @Setup
+    public void setup() throws IOException {
+        List<ContentCard> cards = BenchmarkFixtures.cards(size);
+        if ("list".equals(payload)) {
+            List<CardListItemDTO> items = new ArrayList<>(size);
+            for (ContentCard e : cards) {
+                items.add(cardService.toListItem(e));
+            }
+            body = ApiResponse.ok(new PageResult<>(items, 1000, 1, size));
+        } else {
+            List<CardDetailDTO> details = new ArrayList<>(size);
+            for (ContentCard e : cards) {
+                String section = e.getContent() + "\n\n";
+                e.setContent(section.repeat(4096 / section.getBytes(StandardCharsets.UTF_8).length + 1));
+                details.add(cardService.toDetailItem(e));
+            }
+            body = ApiResponse.ok(BatchDetailDTO.of(details, List.of()));
+        }
+        cache = new CompressedBodyCache(new CacheProperties(), objectMapper);
+        etag = "\"bench-gzip\"";
+        cache.get(etag, () -> body);
+
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        System.out.printf("%n[%s size=%d] bytes: json = %d, gzip (default level) = %d, gzip (precompressed) = %d%n",
+                payload, size, json.length, gzipDefault(json).length, GzipUtil.compress(json).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] jsonGzipPerRequest() throws IOException {
+        return gzipDefault(objectMapper.writeValueAsBytes(body));
+    }
+
+    @Benchmark
+    public byte[] precompressedHit() {
+        return cache.get(etag, () -> body);
+    }
+
+    private static byte[] gzipDefault(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,162 @@
+package com.moonlightbox.service;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.moonlightbox.bench.BenchmarkFixtures;
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.mapper.ContentCardMapper;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 列表查询全列（SELECT *）与列表投影（{@link ContentCardService#listQuery()}）的单页耗时对比。
+ * <p>
+ * 使用经 TCP 访问的内存 H2（MySQL 模式）与真实的 ContentCardMapper / 分页插件，content 填充为 bodyKb 大小的长文；
+ * 每页读取的列值字节数在初始化时打印，gc.alloc.rate.norm 反映驱动与映射物化这些列的开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListProjectionBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"2", "32"})
+    private int bodyKb;
+
+    @Param({"20"})
+    private int size;
+
+    private Server server;
+    private Connection keepAlive;
+    private SqlSession session;
+    private ContentCardMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        // 经 TCP 连接访问，列值需要真实地编码、传输与解码（嵌入式内存库会直接共享 String 实例）
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        keepAlive = dataSource.getConnection();
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("CREATE TABLE content_card (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(256), "
+                    + "subtitle VARCHAR(512), image_url VARCHAR(1024), badge VARCHAR(64), content TEXT, "
+                    + "media_url VARCHAR(1024), author VARCHAR(64), pub_date VARCHAR(32), category VARCHAR(64), "
+                    + "created_at DATETIME, updated_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3), INDEX idx_created_at_id (created_at, id))");
+        }
+        String body = "月光宝盒长文正文 lorem ipsum ".repeat(bodyKb * 1024 / 40);
+        try (PreparedStatement ps = keepAlive.prepareStatement("INSERT INTO content_card (title, subtitle, image_url, "
+                + "badge, content, media_url, author, pub_date, category, created_at) VALUES (?,?,?,?,?,?,?,?,?,?)")) {
+            for (ContentCard e : BenchmarkFixtures.cards(ROWS)) {
+                ps.setString(1, e.getTitle());
+                ps.setString(2, e.getSubtitle());
+                ps.setString(3, e.getImageUrl());
+                ps.setString(4, e.getBadge());
+                ps.setString(5, e.getContent() + "\n\n" + body);
+                ps.setString(6, e.getMediaUrl());
+                ps.setString(7, e.getAuthor());
+                ps.setString(8, e.getPubDate());
+                ps.setString(9, e.getCategory());
+                ps.setTimestamp(10, Timestamp.valueOf(e.getCreatedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("bench", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        // 关闭会话级一级缓存，每次调用都真正执行查询
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        configuration.addInterceptor(interceptor);
+        configuration.addMapper(ContentCardMapper.class);
+        SqlSessionFactory factory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+        session = factory.openSession(true);
+        mapper = session.getMapper(ContentCardMapper.class);
+
+        System.out.printf("%n[bodyKb=%d size=%d] column bytes per page: select * = %d, projection = %d%n",
+                bodyKb, size, payloadBytes(fullPage()), payloadBytes(projectedPage()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        session.close();
+        keepAlive.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public List<ContentCard> selectAllColumns() {
+        return fullPage();
+    }
+
+    @Benchmark
+    public List<ContentCard> selectListColumns() {
+        return projectedPage();
+    }
+
+    private List<ContentCard> fullPage() {
+        return page(() -> new LambdaQueryWrapper<ContentCard>()
+                .orderByDesc(ContentCard::getCreatedAt, ContentCard::getId));
+    }
+
+    private List<ContentCard> projectedPage() {
+        return page(ContentCardService::listQuery);
+    }
+
+    private List<ContentCard> page(Supplier<LambdaQueryWrapper<ContentCard>> query) {
+        // 取第 5 页，包含 offset 跳过的行
+        return mapper.selectPage(new Page<>(5, size, false), query.get()).getRecords();
+    }
+
+    private static long payloadBytes(List<ContentCard> rows) {
+        long bytes = 0;
+        for (ContentCard e : rows) {
+            for (String s : new String[]{e.getTitle(), e.getSubtitle(), e.getImageUrl(), e.getBadge(), e.getContent(),
+                    e.getMediaUrl(), e.getAuthor(), e.getPubDate(), e.getCategory()}) {
+                if (s != null) {
+                    bytes += s.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.bench.BenchmarkFixtures;
+import com.moonlightbox.dto.CardDetailDTO;
+import com.moonlightbox.dto.CardListItemDTO;
+import com.moonlightbox.dto.ChartDetailDTO;
+import com.moonlightbox.dto.ChartListItemDTO;
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.entity.ContentChart;
+import com.moonlightbox.entity.ContentChartData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体 → DTO 映射（toListItem / toDetailItem）的开销，按一页的行数计
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private final ContentCardService cardService = new ContentCardService(null, null, null, null);
+    private final ContentChartService chartService = new ContentChartService(null, null, null, null, null, null);
+
+    private List<ContentCard> cards;
+    private List<ContentChart> charts;
+    private Map<Long, List<ContentChartData>> chartData;
+
+    @Setup
+    public void setup() {
+        cards = BenchmarkFixtures.cards(size);
+        charts = BenchmarkFixtures.charts(size);
+        chartData = BenchmarkFixtures.chartData(charts);
+    }
+
+    @Benchmark
+    public List<CardListItemDTO> cardListPage() {
+        List<CardListItemDTO> list = new ArrayList<>(cards.size());
+        for (ContentCard e : cards) {
+            list.add(cardService.toListItem(e));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public CardDetailDTO cardDetail() {
+        return cardService.toDetailItem(cards.get(0));
+    }
+
+    @Benchmark
+    public List<ChartListItemDTO> chartListPage() {
+        List<ChartListItemDTO> list = new ArrayList<>(charts.size());
+        for (ContentChart e : charts) {
+            list.add(chartService.toListItem(e, chartData.get(e.getId())));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public ChartDetailDTO chartDetail() {
+        ContentChart e = charts.get(0);
+        return chartService.toDetailItem(e, chartData.get(e.getId()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.moonlightbox.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图表序列降采样：分钟级监控序列（30 天约 43200 点）压缩到手机屏幕可显示的点数
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DownsampleBenchmark {
+
+    @Param({"10000", "43200"})
+    private int points;
+
+    @Param({"300"})
+    private int maxPoints;
+
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        values = new double[points];
+        double v = 150;
+        for (int i = 0; i < points; i++) {
+            v = Math.max(20, v + random.nextGaussian() * 8);
+            values[i] = random.nextInt(500) == 0 ? v * 4 : v;
+        }
+    }
+
+    @Benchmark
+    public int[] lttb() {
+        return DownsampleUtil.lttb(values, maxPoints);
+    }
+
+    @Benchmark
+    public double[] bucketMean() {
+        return DownsampleUtil.bucketAggregate(values, maxPoints, DownsampleUtil.Aggregation.MEAN);
+    }
+}
@@ -0,0 +1,43 @@
+package com.moonlightbox.util;
+
+import com.moonlightbox.bench.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * extendInfo JSON 解析：嵌套 Map 与仅基础类型的字符串 Map
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtendInfoBenchmark {
+
+    private final String[] blobs = BenchmarkFixtures.extendInfos();
+
+    @Benchmark
+    public void parseObject(Blackhole bh) {
+        for (String blob : blobs) {
+            bh.consume(ExtendInfoUtil.parseObject(blob));
+        }
+    }
+
+    @Benchmark
+    public void parseToStringMap(Blackhole bh) {
+        for (String blob : blobs) {
+            bh.consume(ExtendInfoUtil.parseToStringMap(blob));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.moonlightbox.util;
+
+import com.moonlightbox.bench.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 详情 id 参数解析，覆盖普通 id、带空白、"1,1" 旧格式及非法输入
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdParseBenchmark {
+
+    private final String[] ids = BenchmarkFixtures.idParams();
+
+    @Benchmark
+    public void parseId(Blackhole bh) {
+        for (String id : ids) {
+            bh.consume(IdParseUtil.parseId(id));
+        }
+    }
+
+    @Benchmark
+    public void parseLongId(Blackhole bh) {
+        for (String id : ids) {
+            bh.consume(IdParseUtil.parseLongId(id));
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.moonlightbox;
 
+import org.apache.ibatis.annotations.Mapper;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@MapperScan("com.moonlightbox.mapper")
+// 只注册 @Mapper 接口，StreamingMapper 等父接口不生成 Mapper
+@MapperScan(basePackages = "com.moonlightbox.mapper", annotationClass = Mapper.class)
+@EnableScheduling
 public class MoonlightBoxApplication {
 
     public static void main(String[] args) {
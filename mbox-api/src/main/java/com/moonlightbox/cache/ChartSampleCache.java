@@ -0,0 +1,68 @@
+package com.moonlightbox.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moonlightbox.config.CacheProperties;
+import com.moonlightbox.dto.ChartDetailDTO;
+import com.moonlightbox.util.ETagUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * 图表详情降采样结果缓存：key 为 (chartId, maxPoints)。
+ * <p>
+ * 条目记录生成时源详情的 ETag，源详情变化（ETag 不同）时视为失效并重新计算，因此无需与详情缓存联动失效。
+ */
+@Component
+public class ChartSampleCache {
+
+    public static final String NAME = "chart-sampled";
+
+    private final Cache<Key, Sampled> cache;
+
+    private record Key(long chartId, int maxPoints) {
+    }
+
+    private record Sampled(String sourceEtag, DetailCache.Entry<ChartDetailDTO> entry) {
+    }
+
+    public ChartSampleCache(CacheProperties cacheProperties) {
+        CacheProperties.Spec spec = cacheProperties.getSampled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 取 source 的降采样结果，未命中或源已变化时调用 sampler 生成；结果 ETag 由源 ETag 派生
+     */
+    public DetailCache.Entry<ChartDetailDTO> get(long chartId, int maxPoints, DetailCache.Entry<ChartDetailDTO> source,
+                                                 UnaryOperator<ChartDetailDTO> sampler) {
+        Key key = new Key(chartId, maxPoints);
+        Sampled sampled = cache.getIfPresent(key);
+        if (sampled != null && sampled.sourceEtag().equals(source.etag())) {
+            return sampled.entry();
+        }
+        ChartDetailDTO value = sampler.apply(source.value());
+        DetailCache.Entry<ChartDetailDTO> entry = value == source.value() ? source
+                : new DetailCache.Entry<>(value, ETagUtil.variant(source.etag(), "p" + maxPoints));
+        cache.put(key, new Sampled(source.etag(), entry));
+        return entry;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,57 @@
+package com.moonlightbox.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moonlightbox.config.CacheProperties;
+import com.moonlightbox.util.GzipUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 已 gzip 压缩的响应体缓存：key 为该表示的强 ETag，命中时直接输出字节，不再经过查询、Jackson 序列化与逐请求压缩。
+ * <p>
+ * 详情 ETag 由内容计算；列表 ETag 由 id 与时间戳计算（与 304 判定的语义一致），条目按写入后 ttl 过期以限制陈旧时间。
+ */
+@Component
+public class CompressedBodyCache {
+
+    public static final String NAME = "compressed-body";
+
+    private final Cache<String, byte[]> cache;
+    private final ObjectMapper objectMapper;
+
+    public CompressedBodyCache(CacheProperties cacheProperties, ObjectMapper objectMapper) {
+        CacheProperties.Spec spec = cacheProperties.getCompressed();
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 取 etag 对应的压缩字节，未命中时序列化 body 并压缩
+     */
+    public byte[] get(String etag, Supplier<?> body) {
+        return cache.get(etag, k -> {
+            try {
+                return GzipUtil.compress(objectMapper.writeValueAsBytes(body.get()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,148 @@
+package com.moonlightbox.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moonlightbox.config.CacheProperties;
+import com.moonlightbox.util.ETagUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 详情 DTO 缓存：key 为解析后的主键 id，容量与 TTL 有界；不存在的 id 以空值负缓存（使用较短的 negativeTtl）。
+ * <p>
+ * 每个条目在加载时按 DTO 的 JSON 内容计算一次强 ETag，条件请求无需再序列化。
+ * 缓存中的 DTO 为共享实例，调用方不得修改。
+ */
+public final class DetailCache<V> {
+
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Optional<Entry<V>>> cache;
+
+    /**
+     * 缓存条目：详情 DTO 及其 ETag
+     */
+    public record Entry<V>(V value, String etag) {
+    }
+
+    /**
+     * 批量读取结果：values 为命中的详情（按请求顺序），missing 为不存在的 id，etag 由各条目 ETag 与缺失 id 组合计算
+     */
+    public record Batch<V>(List<V> values, List<Long> missing, String etag) {
+    }
+
+    DetailCache(String name, CacheProperties.Spec spec, ObjectMapper objectMapper) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        long ttlNanos = spec.getTtl().toNanos();
+        long negativeTtlNanos = spec.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfter(new Expiry<Long, Optional<Entry<V>>>() {
+                    @Override
+                    public long expireAfterCreate(Long key, Optional<Entry<V>> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, Optional<Entry<V>> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, Optional<Entry<V>> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读取详情，未命中时调用 loader 加载；loader 返回 null 表示不存在，同样会被（负）缓存
+     */
+    public V get(Long id, Function<Long, V> loader) {
+        Entry<V> entry = getEntry(id, loader);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * 同 {@link #get}，但返回带 ETag 的条目；不存在时返回 null
+     */
+    public Entry<V> getEntry(Long id, Function<Long, V> loader) {
+        return cache.get(id, k -> Optional.ofNullable(loader.apply(k)).map(this::toEntry)).orElse(null);
+    }
+
+    /**
+     * 批量读取：未命中的 id 一次性交给 loader 加载（loader 返回的 Map 中缺少的 id 视为不存在，同样负缓存）
+     */
+    public Batch<V> getAll(long[] ids, Function<Set<? extends Long>, Map<Long, V>> loader) {
+        List<Long> keys = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            keys.add(id);
+        }
+        Map<Long, Optional<Entry<V>>> found = cache.getAll(keys, missing -> {
+            Map<Long, V> loaded = loader.apply(missing);
+            Map<Long, Optional<Entry<V>>> entries = new HashMap<>(missing.size() * 2);
+            for (Long id : missing) {
+                entries.put(id, Optional.ofNullable(loaded.get(id)).map(this::toEntry));
+            }
+            return entries;
+        });
+        List<V> values = new ArrayList<>(ids.length);
+        List<Long> missingIds = new ArrayList<>();
+        StringBuilder etagSource = new StringBuilder(ids.length * 40);
+        for (Long id : keys) {
+            Optional<Entry<V>> entry = found.getOrDefault(id, Optional.empty());
+            if (entry.isPresent()) {
+                values.add(entry.get().value());
+                etagSource.append(entry.get().etag());
+            } else {
+                missingIds.add(id);
+                etagSource.append('!').append(id);
+            }
+            etagSource.append(',');
+        }
+        return new Batch<>(values, missingIds, ETagUtil.strong(etagSource.toString()));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private Entry<V> toEntry(V value) {
+        try {
+            return new Entry<>(value, ETagUtil.strong(objectMapper.writeValueAsBytes(value)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serialize " + name + " detail failed", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.moonlightbox.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.config.CacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按组件类型创建并登记详情缓存，便于统一输出命中率等统计
+ */
+@Component
+@RequiredArgsConstructor
+public class DetailCacheRegistry {
+
+    private final CacheProperties cacheProperties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, DetailCache<?>> caches = new ConcurrentHashMap<>();
+
+    public <V> DetailCache<V> create(String type) {
+        DetailCache<V> cache = new DetailCache<>(type, cacheProperties.detailSpec(type), objectMapper);
+        caches.put(type, cache);
+        return cache;
+    }
+
+    public Collection<DetailCache<?>> all() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+}
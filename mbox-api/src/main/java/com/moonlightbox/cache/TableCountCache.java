@@ -0,0 +1,84 @@
+package com.moonlightbox.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * 列表总数缓存：按表缓存 COUNT(*) 结果，供 PageResult.total 使用。
+ * <p>
+ * 超过 max-staleness 后先返回旧值，并由后台线程异步刷新（同一张表同时只有一个刷新任务）；
+ * 写入方可调用 {@link #invalidate(String)} 使下一次请求同步重算。
+ */
+@Slf4j
+@Component
+public class TableCountCache {
+
+    private final long maxStalenessNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "count-cache-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public TableCountCache(@Value("${mbox.count-cache.max-staleness:30s}") Duration maxStaleness) {
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    /**
+     * 获取表的总行数
+     *
+     * @param table   表名，作为缓存 key
+     * @param counter 实际执行 COUNT 的回调
+     * @param exact   为 true 时强制同步重算并刷新缓存
+     */
+    public long get(String table, LongSupplier counter, boolean exact) {
+        if (exact) {
+            long count = counter.getAsLong();
+            entries.put(table, new Entry(count, System.nanoTime()));
+            return count;
+        }
+        Entry entry = entries.computeIfAbsent(table, k -> new Entry(counter.getAsLong(), System.nanoTime()));
+        if (System.nanoTime() - entry.loadedAt > maxStalenessNanos && entry.refreshing.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                try {
+                    entries.put(table, new Entry(counter.getAsLong(), System.nanoTime()));
+                } catch (RuntimeException e) {
+                    entry.refreshing.set(false);
+                    log.warn("Refresh count of {} failed", table, e);
+                }
+            });
+        }
+        return entry.count;
+    }
+
+    public void invalidate(String table) {
+        entries.remove(table);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static final class Entry {
+        final long count;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.moonlightbox.common;
+
+/**
+ * 组件类型，code 与前端 API 路径（/api/{code}/...）一致
+ */
+public enum ContentType {
+
+    CARD("card"),
+    VIDEO("video"),
+    CHART("chart");
+
+    private final String code;
+
+    ContentType(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 按 code 查找（忽略大小写）；未知 code 返回 null
+     */
+    public static ContentType fromCode(String code) {
+        for (ContentType type : values()) {
+            if (type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
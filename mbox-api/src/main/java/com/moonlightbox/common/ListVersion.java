@@ -0,0 +1,28 @@
+package com.moonlightbox.common;
+
+import com.moonlightbox.util.ETagUtil;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 列表页的版本信息，用于条件请求（If-None-Match）。
+ * <p>
+ * 列表响应不带 Last-Modified：本页最大时间戳不是单调的（删除或移出本页的行会使其回退），
+ * 据此判断 If-Modified-Since 会把已变化的页误判为未修改；ETag 覆盖行集合本身，没有这个问题。
+ *
+ * @param etag 强 ETag，由页码、总数及本页每行的 id 与时间戳计算
+ */
+public record ListVersion(String etag) {
+
+    public static <T> ListVersion of(String table, int page, int size, long total, List<T> rows,
+                                     Function<T, Long> idGetter, Function<T, LocalDateTime> timeGetter) {
+        StringBuilder sb = new StringBuilder(32 + rows.size() * 32)
+                .append(table).append(':').append(page).append(':').append(size).append(':').append(total);
+        for (T row : rows) {
+            sb.append(':').append(idGetter.apply(row)).append('@').append(timeGetter.apply(row));
+        }
+        return new ListVersion(ETagUtil.strong(sb.toString()));
+    }
+}
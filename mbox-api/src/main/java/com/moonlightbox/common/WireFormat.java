@@ -0,0 +1,80 @@
+package com.moonlightbox.common;
+
+import com.moonlightbox.util.ETagUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * 响应格式，按 Accept 头协商：JSON（默认）、CBOR（application/cbor）、Smile（application/x-jackson-smile）。
+ * <p>
+ * 三种格式使用同一套 DTO；二进制格式的 ETag 带格式后缀，与 JSON 表示区分。
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON, null),
+    CBOR(MediaType.APPLICATION_CBOR, "cbor"),
+    SMILE(new MediaType("application", "x-jackson-smile"), "smile");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    WireFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 该格式下的 ETag：JSON 原样返回，二进制格式追加后缀（"abc" → "abc-cbor"）
+     */
+    public String etag(String etag) {
+        return etagSuffix == null ? etag : ETagUtil.variant(etag, etagSuffix);
+    }
+
+    /**
+     * 取 Accept 中 q 值最高的可用格式（同 q 值取先出现者）；未带 Accept、无法解析或只接受其他类型时为 JSON
+     */
+    public static WireFormat of(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        WireFormat best = JSON;
+        double bestQuality = 0;
+        for (MediaType type : types) {
+            double quality = type.getQualityValue();
+            if (quality <= bestQuality) {
+                continue;
+            }
+            WireFormat format = match(type);
+            if (format != null) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static WireFormat match(MediaType type) {
+        for (WireFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(type)) {
+                return format;
+            }
+        }
+        // */*、application/* 等通配类型按 JSON 处理
+        return type.includes(MediaType.APPLICATION_JSON) ? JSON : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.moonlightbox.config;
+
+import com.moonlightbox.cache.DetailCache;
+import com.moonlightbox.cache.DetailCacheRegistry;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.CardDetailDTO;
+import com.moonlightbox.dto.ChartDetailDTO;
+import com.moonlightbox.dto.VideoDetailDTO;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 详情缓存：card / video / chart 各一个实例，容量与 TTL 见 application.yml 中 mbox.cache.detail。
+ * <p>
+ * 本服务不提供 card / video 的修改接口，直接在库中修改的行只在条目过期（ttl）后反映到 /detail，
+ * 列表与增量同步按 updated_at 即时可见；chart 的数据点写入会主动失效对应条目（见 ContentChartService）
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public DetailCache<CardDetailDTO> cardDetailCache(DetailCacheRegistry registry) {
+        return registry.create(ContentType.CARD.getCode());
+    }
+
+    @Bean
+    public DetailCache<VideoDetailDTO> videoDetailCache(DetailCacheRegistry registry) {
+        return registry.create(ContentType.VIDEO.getCode());
+    }
+
+    @Bean
+    public DetailCache<ChartDetailDTO> chartDetailCache(DetailCacheRegistry registry) {
+        return registry.create(ContentType.CHART.getCode());
+    }
+}
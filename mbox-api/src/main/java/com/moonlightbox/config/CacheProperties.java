@@ -0,0 +1,45 @@
+package com.moonlightbox.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内缓存配置（mbox.cache.*），按组件类型（card / video / chart）分别设置容量与过期时间
+ */
+@Data
+@ConfigurationProperties(prefix = "mbox.cache")
+public class CacheProperties {
+
+    /**
+     * 详情缓存，key 为组件类型
+     */
+    private Map<String, Spec> detail = new LinkedHashMap<>();
+
+    /**
+     * 图表降采样结果缓存，key 为 (chartId, maxPoints)；negativeTtl 不使用
+     */
+    private Spec sampled = new Spec();
+
+    /**
+     * 预压缩响应体缓存，key 为响应 ETag；negativeTtl 不使用
+     */
+    private Spec compressed = new Spec();
+
+    public Spec detailSpec(String type) {
+        return detail.getOrDefault(type, new Spec());
+    }
+
+    @Data
+    public static class Spec {
+        /** 最大条目数，超出后按 W-TinyLFU 淘汰 */
+        private long maxSize = 1000;
+        /** 命中数据的存活时间（写入后计时） */
+        private Duration ttl = Duration.ofMinutes(10);
+        /** 不存在的 id（404）的负缓存时间 */
+        private Duration negativeTtl = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,84 @@
+package com.moonlightbox.config;
+
+import com.moonlightbox.datasource.ReadOnlyRouteAspect;
+import com.moonlightbox.datasource.ReplicaRoutingDataSource;
+import com.moonlightbox.datasource.WriteStickinessFilter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离：配置了 mbox.datasource.replicas 时生效，替代 Spring Boot 自动配置的单一数据源。
+ * <p>
+ * 主库连接池仍按 spring.datasource / spring.datasource.hikari 创建；副本连接池沿用主库的驱动与 data-source-properties。
+ * 对外暴露的数据源为 LazyConnectionDataSourceProxy 包装的路由数据源，
+ * 事务场景下延迟到第一条语句才取连接，此时只读标记已就绪。
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "mbox.datasource.replicas[0]", name = "url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<ReplicaProperties.Replica> specs = properties.getReplicas();
+        for (int i = 0; i < specs.size(); i++) {
+            ReplicaProperties.Replica spec = specs.get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            config.setJdbcUrl(spec.getUrl());
+            config.setUsername(spec.getUsername() != null ? spec.getUsername() : primaryDataSource.getUsername());
+            config.setPassword(spec.getPassword() != null ? spec.getPassword() : primaryDataSource.getPassword());
+            config.setDriverClassName(primaryDataSource.getDriverClassName());
+            config.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            config.setMaximumPoolSize(spec.getMaximumPoolSize());
+            config.setConnectionTimeout(spec.getConnectionTimeout());
+            config.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            config.setReadOnly(true);
+            // 副本启动时不可用不阻止应用启动，运行期由路由数据源回退到主库
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getStrategy(),
+                properties.getStickyWindow(), properties.getRetryInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadOnlyRouteAspect readOnlyRouteAspect() {
+        return new ReadOnlyRouteAspect();
+    }
+
+    @Bean
+    public WriteStickinessFilter writeStickinessFilter(ReplicaProperties properties) {
+        return new WriteStickinessFilter(properties.getStickyWindow());
+    }
+}
@@ -3,11 +3,13 @@ package com.moonlightbox.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.moonlightbox.metrics.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * MyBatis-Plus 分页插件配置
+ * MyBatis-Plus 插件配置：分页 + SQL 指标
  */
 @Configuration
 public class MybatisPlusConfig {
@@ -18,4 +20,12 @@ public class MybatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         return interceptor;
     }
+
+    /**
+     * SQL 耗时与行数指标（mbox.sql / mbox.sql.rows），与分页插件一并由 MyBatis-Plus 自动注册
+     */
+    @Bean
+    public SqlMetricsInterceptor sqlMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new SqlMetricsInterceptor(meterRegistry);
+    }
 }
@@ -0,0 +1,39 @@
+package com.moonlightbox.config;
+
+import com.moonlightbox.datasource.ReplicaRoutingDataSource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本配置（mbox.datasource.*）。replicas 为空时不启用读写分离，所有查询使用 spring.datasource 主库
+ */
+@Data
+@ConfigurationProperties(prefix = "mbox.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** 副本选择策略：round-robin / least-connections */
+    private ReplicaRoutingDataSource.Strategy strategy = ReplicaRoutingDataSource.Strategy.ROUND_ROBIN;
+
+    /** 写入后只读路径仍走主库的时间（读己之写），应不小于复制延迟；0 表示不启用 */
+    private Duration stickyWindow = Duration.ofSeconds(2);
+
+    /** 副本取连接失败后，多久内不再尝试该副本 */
+    private Duration retryInterval = Duration.ofSeconds(30);
+
+    @Data
+    public static class Replica {
+        private String url;
+        /** 为空时沿用主库的用户名 / 密码 */
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+        /** 获取连接超时（ms），应明显短于主库，以便副本故障时尽快回退 */
+        private long connectionTimeout = 1000;
+    }
+}
@@ -0,0 +1,57 @@
+package com.moonlightbox.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moonlightbox.cache.ChartSampleCache;
+import com.moonlightbox.cache.CompressedBodyCache;
+import com.moonlightbox.cache.DetailCache;
+import com.moonlightbox.cache.DetailCacheRegistry;
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.dto.CacheStatsDTO;
+import com.moonlightbox.util.ExtendInfoUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 缓存统计 API：各详情缓存、图表降采样缓存、预压缩响应体缓存及 extendInfo 解析缓存的命中 / 未命中 / 淘汰计数
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final DetailCacheRegistry detailCacheRegistry;
+    private final ChartSampleCache chartSampleCache;
+    private final CompressedBodyCache compressedBodyCache;
+
+    @GetMapping("/stats")
+    public ApiResponse<List<CacheStatsDTO>> stats() {
+        List<CacheStatsDTO> list = new ArrayList<>();
+        for (DetailCache<?> cache : detailCacheRegistry.all()) {
+            list.add(toStats(cache.getName(), cache.estimatedSize(), cache.stats()));
+        }
+        list.add(toStats(ChartSampleCache.NAME, chartSampleCache.estimatedSize(), chartSampleCache.stats()));
+        list.add(toStats(CompressedBodyCache.NAME, compressedBodyCache.estimatedSize(), compressedBodyCache.stats()));
+        // 定长槽位同槽覆盖，不单独统计淘汰
+        list.add(toStats(ExtendInfoUtil.NAME, ExtendInfoUtil.cachedCount(),
+                CacheStats.of(ExtendInfoUtil.cacheHitCount(), ExtendInfoUtil.cacheMissCount(), 0, 0, 0, 0, 0)));
+        list.sort(Comparator.comparing(CacheStatsDTO::getName));
+        return ApiResponse.ok(list);
+    }
+
+    private static CacheStatsDTO toStats(String name, long size, CacheStats stats) {
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setName(name);
+        dto.setSize(size);
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        return dto;
+    }
+}
@@ -1,41 +1,258 @@
 package com.moonlightbox.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.cache.CompressedBodyCache;
+import com.moonlightbox.cache.DetailCache;
 import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.common.ListVersion;
+import com.moonlightbox.common.WireFormat;
+import com.moonlightbox.dto.BatchDetailDTO;
 import com.moonlightbox.dto.ChartDetailDTO;
 import com.moonlightbox.dto.ChartListItemDTO;
+import com.moonlightbox.dto.ChartPointDTO;
+import com.moonlightbox.dto.ChartRollupDTO;
 import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.dto.SyncResult;
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.service.ChartIngestService;
+import com.moonlightbox.service.ChartRollupService;
+import com.moonlightbox.service.ChartStreamService;
 import com.moonlightbox.service.ContentChartService;
+import com.moonlightbox.service.ListSnapshotService;
+import com.moonlightbox.util.DownsampleUtil;
+import com.moonlightbox.util.ETagUtil;
+import com.moonlightbox.util.NdjsonWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
- * 图表组件 API：列表（分页）+ 详情
+ * 图表组件 API：列表（分页 / 游标）+ 详情（单个 / 批量）+ 增量同步 + 全表导出 + 数据点批量写入 + 实时推送（SSE）+ 时间分桶聚合
  */
 @RestController
 @RequestMapping("/api/chart")
 @RequiredArgsConstructor
 public class ChartController {
 
+    /**
+     * chartData 输出格式：points 为 [{"x":..,"y":..}]（默认），compact 为 {"x":[...],"y":[...]}
+     */
+    private static final String FORMAT_POINTS = "points";
+    private static final String FORMAT_COMPACT = "compact";
+
     private final ContentChartService contentChartService;
+    private final ChartIngestService chartIngestService;
+    private final ChartStreamService chartStreamService;
+    private final ChartRollupService chartRollupService;
+    private final ListSnapshotService listSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final CompressedBodyCache compressedBodyCache;
 
     @GetMapping("/list")
-    public ApiResponse<PageResult<ChartListItemDTO>> list(
+    public ResponseEntity<?> list(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ApiResponse.ok(contentChartService.list(page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean exactTotal,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(defaultValue = FORMAT_POINTS) String chartFormat,
+            WebRequest webRequest) {
+        if (maxPoints != null && maxPoints < DownsampleUtil.MIN_POINTS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        boolean compact = FORMAT_COMPACT.equalsIgnoreCase(chartFormat);
+        WireFormat format = WireFormat.of(webRequest);
+        if (cursor == null && !exactTotal && !compact && maxPoints == null && format == WireFormat.JSON) {
+            ListSnapshotService.Snapshot snapshot = listSnapshotService.find(ContentType.CHART, page, size);
+            if (snapshot != null) {
+                return GzipResponses.snapshot(snapshot, webRequest);
+            }
+        }
+        if (cursor == null) {
+            ListVersion version = contentChartService.listVersion(page, size, exactTotal);
+            String etag = version.etag();
+            if (maxPoints != null) {
+                etag = ETagUtil.variant(etag, "p" + maxPoints);
+            }
+            if (compact) {
+                etag = ETagUtil.variant(etag, FORMAT_COMPACT);
+            }
+            if (GzipResponses.applies(format, webRequest)) {
+                return GzipResponses.cached(etag, () -> ApiResponse.ok(contentChartService.reshape(
+                        contentChartService.list(page, size, false), maxPoints, compact)), compressedBodyCache, webRequest);
+            }
+            etag = format.etag(etag);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            // 需要精确总数时已在版本探测中刷新计数缓存
+            PageResult<ChartListItemDTO> result = contentChartService.list(page, size, false);
+            return ResponseEntity.ok().eTag(etag).contentType(format.getMediaType())
+                    .body(ApiResponse.ok(contentChartService.reshape(result, maxPoints, compact)));
+        }
+        PageResult<ChartListItemDTO> result = contentChartService.listByCursor(cursor, size);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(contentChartService.reshape(result, maxPoints, compact)));
     }
 
     @GetMapping("/detail")
-    public ResponseEntity<ApiResponse<ChartDetailDTO>> detail(@RequestParam String id) {
-        ChartDetailDTO detail = contentChartService.getDetail(id);
+    public ResponseEntity<?> detail(
+            @RequestParam String id,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(defaultValue = FORMAT_POINTS) String chartFormat,
+            WebRequest webRequest) {
+        if (maxPoints != null && maxPoints < DownsampleUtil.MIN_POINTS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        DetailCache.Entry<ChartDetailDTO> detail = contentChartService.getDetailEntry(id, maxPoints);
         if (detail == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.fail(404, null));
         }
-        return ResponseEntity.ok(ApiResponse.ok(detail));
+        boolean compact = FORMAT_COMPACT.equalsIgnoreCase(chartFormat);
+        String etag = compact ? ETagUtil.variant(detail.etag(), FORMAT_COMPACT) : detail.etag();
+        WireFormat format = WireFormat.of(webRequest);
+        if (GzipResponses.applies(format, webRequest)) {
+            return GzipResponses.cached(etag, () -> ApiResponse.ok(compact ? contentChartService.toCompact(detail.value())
+                    : detail.value()), compressedBodyCache, webRequest);
+        }
+        etag = format.etag(etag);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ChartDetailDTO body = compact ? contentChartService.toCompact(detail.value()) : detail.value();
+        return ResponseEntity.ok().eTag(etag).contentType(format.getMediaType()).body(ApiResponse.ok(body));
+    }
+
+    /**
+     * 批量详情：/detail?ids=1,2,3，按请求顺序返回并列出不存在的 id；ids 非法时返回 400
+     */
+    @GetMapping(value = "/detail", params = "ids")
+    public ResponseEntity<?> details(@RequestParam String ids, WebRequest webRequest) {
+        DetailCache.Batch<ChartDetailDTO> batch = contentChartService.getDetails(ids);
+        if (batch == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        WireFormat format = WireFormat.of(webRequest);
+        if (GzipResponses.applies(format, webRequest)) {
+            return GzipResponses.cached(batch.etag(), () -> ApiResponse.ok(BatchDetailDTO.of(batch.values(), batch.missing())),
+                    compressedBodyCache, webRequest);
+        }
+        String etag = format.etag(batch.etag());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(format.getMediaType())
+                .body(ApiResponse.ok(BatchDetailDTO.of(batch.values(), batch.missing())));
+    }
+
+    /**
+     * 增量同步：/sync?since=上次返回的水位&size=100，首次同步 since 为空；since 非法时返回 400。
+     * chartData 仅在数据点变化时返回（否则为 null），chartFormat 同详情
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<ApiResponse<SyncResult<ChartDetailDTO>>> sync(
+            @RequestParam(defaultValue = "") String since,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = FORMAT_POINTS) String chartFormat) {
+        SyncResult<ChartDetailDTO> result = contentChartService.sync(since, size);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        if (FORMAT_COMPACT.equalsIgnoreCase(chartFormat)) {
+            result.setChanged(result.getChanged().stream().map(contentChartService::toCompact).collect(Collectors.toList()));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(result));
+    }
+
+    /**
+     * 批量写入数据点：请求体为 [{"chartId":1,"xLabel":"..","yValue":1.0,"sortOrder":0}, ...]，异步写入，接受后返回 202。
+     * 请求体非法时返回 400，引用了不存在的图表时返回 404（data 为这些图表 id），写入缓冲区已满时返回 429
+     */
+    @PostMapping("/data")
+    public ResponseEntity<ApiResponse<?>> ingest(@RequestBody List<ChartPointDTO> points) {
+        List<ContentChartData> rows = chartIngestService.validate(points);
+        if (rows == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        List<Long> unknown = chartIngestService.unknownCharts(rows);
+        if (!unknown.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.fail(404, unknown));
+        }
+        if (!chartIngestService.offer(rows)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.fail(429, null));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.ok(rows.size()));
+    }
+
+    /**
+     * 时间分桶聚合：/rollup?id=1&period=24h&bucket=1h，返回截至当前的各桶 count / sum / min / max / avg，
+     * 由内存聚合直接回答，耗时与明细点数无关。period 缺省时取图表自身的 period，bucket 缺省时按 period 选择；
+     * period / bucket 非法或组合不受支持时返回 400，图表不存在时返回 404
+     */
+    @GetMapping("/rollup")
+    public ResponseEntity<ApiResponse<ChartRollupDTO>> rollup(
+            @RequestParam String id,
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) String bucket) {
+        if (!chartRollupService.isValidWindow(period, bucket)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        ChartRollupDTO result = chartRollupService.rollup(id, period, bucket);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.fail(404, null));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(result));
+    }
+
+    /**
+     * 实时推送：/stream?id=1（text/event-stream）。事件依次为 open（data 为当前详情 ETag）、
+     * points（合并周期内新写入的数据点，格式同详情 chartData）、reset（新点过多，需重新拉取详情）。
+     * 图表不存在时返回 404，订阅数已满时返回 503（SSE 响应无法携带 ApiResponse，均无响应体）
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<SseEmitter> stream(@RequestParam String id) {
+        if (chartStreamService.isFull()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        SseEmitter emitter = chartStreamService.subscribe(id);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        // 关闭 Nginx 对该响应的缓冲，否则事件会攒到缓冲区满才下发
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
+    /**
+     * 全表导出（NDJSON，每行一条详情，按 id 升序）：流式读取并直接写入响应，内存占用与表大小无关
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter<ChartDetailDTO> writer = new NdjsonWriter<>(out, objectMapper)) {
+                contentChartService.exportAll(writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"chart.ndjson\"")
+                .body(body);
     }
 }
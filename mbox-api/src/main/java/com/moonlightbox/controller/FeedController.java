@@ -0,0 +1,35 @@
+package com.moonlightbox.controller;
+
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.dto.FeedDTO;
+import com.moonlightbox.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 首页聚合 API：一次请求返回多个组件类型的第一页列表，如 /api/feed?sections=card:10,video:5,chart:3
+ */
+@RestController
+@RequestMapping("/api/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final FeedService feedService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<FeedDTO>> feed(
+            @RequestParam(defaultValue = "card,video,chart") String sections) {
+        List<FeedService.Section> parsed = feedService.parseSections(sections);
+        if (parsed == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(feedService.feed(parsed)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.moonlightbox.controller;
+
+import com.moonlightbox.cache.CompressedBodyCache;
+import com.moonlightbox.common.WireFormat;
+import com.moonlightbox.service.ListSnapshotService;
+import com.moonlightbox.util.ETagUtil;
+import com.moonlightbox.util.GzipUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * 预压缩响应：客户端接受 gzip 时直接输出已压缩的字节（Content-Encoding: gzip），该表示使用 "-gzip" 派生 ETag。
+ * <p>
+ * Tomcat 不压缩带强 ETag 的响应，因此带 ETag 的列表与详情响应都经由这里压缩；其余响应（游标分页、聚合、导出）由
+ * server.compression 按请求压缩。返回 null 表示已由 checkNotModified 写出 304。
+ */
+final class GzipResponses {
+
+    private GzipResponses() {
+    }
+
+    /**
+     * 是否使用预压缩字节：预压缩的是 JSON，仅在协商格式为 JSON 且客户端接受 gzip 时使用
+     */
+    static boolean applies(WireFormat format, WebRequest webRequest) {
+        return format == WireFormat.JSON && GzipUtil.accepts(webRequest);
+    }
+
+    /**
+     * 首页列表快照（JSON），按 Accept-Encoding 输出压缩或未压缩字节
+     */
+    static ResponseEntity<byte[]> snapshot(ListSnapshotService.Snapshot snapshot, WebRequest webRequest) {
+        boolean gzip = GzipUtil.accepts(webRequest);
+        String etag = gzip ? ETagUtil.variant(snapshot.etag(), GzipUtil.ENCODING) : snapshot.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (gzip) {
+            return gzip(etag, snapshot.gzipBody());
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING).body(snapshot.body());
+    }
+
+    /**
+     * 带强 ETag 的响应（列表页、详情）的 gzip 表示，压缩字节取自 {@link CompressedBodyCache}，命中时不再调用 body；
+     * 调用方需先以 {@link #applies} 确认
+     */
+    static ResponseEntity<byte[]> cached(String etag, Supplier<?> body, CompressedBodyCache cache, WebRequest webRequest) {
+        String gzipEtag = ETagUtil.variant(etag, GzipUtil.ENCODING);
+        if (webRequest.checkNotModified(gzipEtag)) {
+            return null;
+        }
+        return gzip(gzipEtag, cache.get(gzipEtag, body));
+    }
+
+    private static ResponseEntity<byte[]> gzip(String etag, byte[] body) {
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_ENCODING, GzipUtil.ENCODING)
+                .body(body);
+    }
+}
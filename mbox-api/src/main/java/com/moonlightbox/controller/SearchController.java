@@ -0,0 +1,50 @@
+package com.moonlightbox.controller;
+
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.dto.SearchHitDTO;
+import com.moonlightbox.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 站内搜索 API：/api/search?q=关键词&type=card|video&size=10
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * q 为空或 type 非 card / video 时返回 400；索引尚在构建时返回 503
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<PageResult<SearchHitDTO>>> search(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int size) {
+        ContentType contentType = null;
+        if (type != null && !type.isBlank()) {
+            contentType = ContentType.fromCode(type);
+            if (contentType == null || contentType == ContentType.CHART) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+            }
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        PageResult<SearchHitDTO> result = searchService.search(q, contentType, size);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.fail(503, null));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(result));
+    }
+}
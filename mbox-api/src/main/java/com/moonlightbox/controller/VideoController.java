@@ -1,20 +1,34 @@
 package com.moonlightbox.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.cache.CompressedBodyCache;
+import com.moonlightbox.cache.DetailCache;
 import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.common.ListVersion;
+import com.moonlightbox.common.WireFormat;
+import com.moonlightbox.dto.BatchDetailDTO;
 import com.moonlightbox.dto.VideoListItemDTO;
 import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.dto.SyncResult;
 import com.moonlightbox.dto.VideoDetailDTO;
 import com.moonlightbox.service.ContentVideoService;
+import com.moonlightbox.service.ListSnapshotService;
+import com.moonlightbox.util.NdjsonWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
- * 视频组件 API：列表（分页）+ 详情
+ * 视频组件 API：列表（分页 / 游标）+ 详情（单个 / 批量）+ 增量同步 + 全表导出
  */
 @RestController
 @RequestMapping("/api/video")
@@ -22,20 +36,111 @@ import org.springframework.web.bind.annotation.RestController;
 public class VideoController {
 
     private final ContentVideoService contentVideoService;
+    private final ListSnapshotService listSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final CompressedBodyCache compressedBodyCache;
 
     @GetMapping("/list")
-    public ApiResponse<PageResult<VideoListItemDTO>> list(
+    public ResponseEntity<?> list(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ApiResponse.ok(contentVideoService.list(page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean exactTotal,
+            WebRequest webRequest) {
+        WireFormat format = WireFormat.of(webRequest);
+        if (cursor == null && !exactTotal && format == WireFormat.JSON) {
+            ListSnapshotService.Snapshot snapshot = listSnapshotService.find(ContentType.VIDEO, page, size);
+            if (snapshot != null) {
+                return GzipResponses.snapshot(snapshot, webRequest);
+            }
+        }
+        if (cursor == null) {
+            ListVersion version = contentVideoService.listVersion(page, size, exactTotal);
+            if (GzipResponses.applies(format, webRequest)) {
+                return GzipResponses.cached(version.etag(), () -> ApiResponse.ok(contentVideoService.list(page, size, false)),
+                        compressedBodyCache, webRequest);
+            }
+            String etag = format.etag(version.etag());
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            // 需要精确总数时已在版本探测中刷新计数缓存
+            return ResponseEntity.ok().eTag(etag).contentType(format.getMediaType())
+                    .body(ApiResponse.ok(contentVideoService.list(page, size, false)));
+        }
+        PageResult<VideoListItemDTO> result = contentVideoService.listByCursor(cursor, size);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(result));
     }
 
     @GetMapping("/detail")
-    public ResponseEntity<ApiResponse<VideoDetailDTO>> detail(@RequestParam String id) {
-        VideoDetailDTO detail = contentVideoService.getDetail(id);
+    public ResponseEntity<?> detail(@RequestParam String id, WebRequest webRequest) {
+        DetailCache.Entry<VideoDetailDTO> detail = contentVideoService.getDetailEntry(id);
         if (detail == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.fail(404, null));
         }
-        return ResponseEntity.ok(ApiResponse.ok(detail));
+        WireFormat format = WireFormat.of(webRequest);
+        if (GzipResponses.applies(format, webRequest)) {
+            return GzipResponses.cached(detail.etag(), () -> ApiResponse.ok(detail.value()), compressedBodyCache, webRequest);
+        }
+        String etag = format.etag(detail.etag());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(format.getMediaType()).body(ApiResponse.ok(detail.value()));
+    }
+
+    /**
+     * 批量详情：/detail?ids=1,2,3，按请求顺序返回并列出不存在的 id；ids 非法时返回 400
+     */
+    @GetMapping(value = "/detail", params = "ids")
+    public ResponseEntity<?> details(@RequestParam String ids, WebRequest webRequest) {
+        DetailCache.Batch<VideoDetailDTO> batch = contentVideoService.getDetails(ids);
+        if (batch == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        WireFormat format = WireFormat.of(webRequest);
+        if (GzipResponses.applies(format, webRequest)) {
+            return GzipResponses.cached(batch.etag(), () -> ApiResponse.ok(BatchDetailDTO.of(batch.values(), batch.missing())),
+                    compressedBodyCache, webRequest);
+        }
+        String etag = format.etag(batch.etag());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(format.getMediaType())
+                .body(ApiResponse.ok(BatchDetailDTO.of(batch.values(), batch.missing())));
+    }
+
+    /**
+     * 增量同步：/sync?since=上次返回的水位&size=100，首次同步 since 为空；since 非法时返回 400
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<ApiResponse<SyncResult<VideoDetailDTO>>> sync(
+            @RequestParam(defaultValue = "") String since,
+            @RequestParam(defaultValue = "100") int size) {
+        SyncResult<VideoDetailDTO> result = contentVideoService.sync(since, size);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.fail(400, null));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(result));
+    }
+
+    /**
+     * 全表导出（NDJSON，每行一条详情，按 id 升序）：流式读取并直接写入响应，内存占用与表大小无关
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter<VideoDetailDTO> writer = new NdjsonWriter<>(out, objectMapper)) {
+                contentVideoService.exportAll(writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"video.ndjson\"")
+                .body(body);
     }
 }
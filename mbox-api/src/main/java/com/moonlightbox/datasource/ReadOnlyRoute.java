@@ -0,0 +1,18 @@
+package com.moonlightbox.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记只读的服务类或方法：其中执行的查询可路由到只读副本（配置了 mbox.datasource.replicas 时生效）。
+ * <p>
+ * 只能用于不写库的路径；标注在类上时对其所有 public 方法生效。
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyRoute {
+}
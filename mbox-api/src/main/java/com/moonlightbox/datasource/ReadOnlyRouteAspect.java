@@ -0,0 +1,22 @@
+package com.moonlightbox.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * 在 {@link ReadOnlyRoute} 标注的类 / 方法执行期间设置只读路由标记。仅在配置了只读副本时注册（见 DataSourceConfig）
+ */
+@Aspect
+public class ReadOnlyRouteAspect {
+
+    @Around("@within(com.moonlightbox.datasource.ReadOnlyRoute) || @annotation(com.moonlightbox.datasource.ReadOnlyRoute)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = RoutingContext.enterReadOnly();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+}
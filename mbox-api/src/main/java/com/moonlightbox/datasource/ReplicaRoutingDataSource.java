@@ -0,0 +1,179 @@
+package com.moonlightbox.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 主库 + 只读副本的路由数据源。
+ * <p>
+ * 只读路径（{@link ReadOnlyRoute} 方法内，或只读事务）按 round-robin / least-connections 选择副本，
+ * 其余连接一律来自主库。副本在作用域（请求，或请求之外的最外层只读路由，见 {@link RoutingContext}）内首次取连接时选定，
+ * 之后同一作用域的只读连接都取自该副本，避免同一响应的各个查询落在复制进度不同的副本上。
+ * 副本取连接失败时在 retryInterval 内不再尝试该副本，全部副本不可用或已选定的副本失败时，本作用域其余只读连接改走主库。
+ * <p>
+ * {@link RoutingContext#onPrimary} 内的连接一律来自主库，且不记为写入。
+ * <p>
+ * 读己之写：客户端写入（请求内的非只读事务取连接，或调用 {@link #markWrite()}）之后的 stickyWindow 内，
+ * 该客户端的只读路径也走主库，窗口应不小于副本的复制延迟。写入时间按客户端记录（见 {@link WriteStickinessFilter}），
+ * 其他客户端与请求之外的写入（后台批量写入、定时任务）不影响路由。只在取连接时路由，已取得的连接上查询失败不会切换。
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_CONNECTIONS
+    }
+
+    /**
+     * 作用域已回退到主库的标记
+     */
+    private static final Replica PRIMARY = new Replica(null);
+
+    private final HikariDataSource primary;
+    private final Replica[] replicas;
+    private final Strategy strategy;
+    private final long stickyWindowMillis;
+    private final long retryIntervalNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Strategy strategy,
+                                    Duration stickyWindow, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toArray(Replica[]::new);
+        this.strategy = strategy;
+        this.stickyWindowMillis = stickyWindow.toMillis();
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (RoutingContext.isPrimary() || !isReadOnlyRoute() || isSticky()) {
+            return primary.getConnection();
+        }
+        long now = System.nanoTime();
+        Replica pinned = RoutingContext.pinnedReplica();
+        if (pinned != null) {
+            if (pinned != PRIMARY && now - pinned.downSince >= retryIntervalNanos) {
+                Connection connection = tryConnect(pinned);
+                if (connection != null) {
+                    return connection;
+                }
+            }
+            // 不换到其他副本：主库不落后于任何副本，改走主库只会读到更新的数据
+            RoutingContext.pinReplica(PRIMARY);
+            return primary.getConnection();
+        }
+        int n = replicas.length;
+        int start = strategy == Strategy.LEAST_CONNECTIONS ? leastActive() : Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas[(start + i) % n];
+            if (now - replica.downSince < retryIntervalNanos) {
+                continue;
+            }
+            Connection connection = tryConnect(replica);
+            if (connection != null) {
+                RoutingContext.pinReplica(replica);
+                return connection;
+            }
+        }
+        RoutingContext.pinReplica(PRIMARY);
+        return primary.getConnection();
+    }
+
+    /**
+     * 从副本取连接，失败时记录不可用并返回 null
+     */
+    private Connection tryConnect(Replica replica) {
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.downSince = System.nanoTime();
+            log.warn("Replica {} unavailable, skipped for {} ms", replica.dataSource.getPoolName(),
+                    retryIntervalNanos / 1_000_000, e);
+            return null;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 记录当前客户端的一次写入：之后 stickyWindow 内该客户端的只读路径也走主库。
+     * 请求内事务外的写入（如直接使用 JdbcTemplate 写）需显式调用；不在请求内时忽略
+     */
+    public void markWrite() {
+        RoutingContext.markWrite(System.currentTimeMillis());
+    }
+
+    private boolean isReadOnlyRoute() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                markWrite();
+                return false;
+            }
+            return true;
+        }
+        return RoutingContext.isReadOnly();
+    }
+
+    /**
+     * 写入时间来自客户端，可能由其他实例记录：容许窗口以内的时钟偏差，超出的（含伪造的未来时间）视为无效
+     */
+    private boolean isSticky() {
+        long last = RoutingContext.lastWriteAt();
+        if (last == 0) {
+            return false;
+        }
+        long age = System.currentTimeMillis() - last;
+        return age < stickyWindowMillis && age > -stickyWindowMillis;
+    }
+
+    private int leastActive() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.length; i++) {
+            HikariPoolMXBean pool = replicas[i].dataSource.getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 关闭副本连接池；主库连接池由容器管理
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    static final class Replica {
+        final HikariDataSource dataSource;
+        /**
+         * 最近一次取连接失败的时间（System.nanoTime），初始值保证首次即可尝试
+         */
+        volatile long downSince;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.downSince = System.nanoTime() - Long.MAX_VALUE / 2;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.moonlightbox.datasource;
+
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的读写路由状态：
+ * <ul>
+ *   <li>只读标记，由 {@link ReadOnlyRouteAspect} 在 {@link ReadOnlyRoute} 方法执行期间设置；</li>
+ *   <li>主库标记，由 {@link #onPrimary} 设置：只读查询也走主库，且不记为客户端写入；</li>
+ *   <li>发起请求的客户端最近一次写入的时间，由 {@link WriteStickinessFilter} 在请求期间设置，用于读己之写；</li>
+ *   <li>本作用域已选定的副本：请求内为整个请求，请求之外为最外层的只读路由，作用域内的只读连接都取自同一副本，
+ *   同一请求的版本探测、分页查询与子表查询看到同一复制进度。</li>
+ * </ul>
+ * 支持嵌套：退出时恢复进入前的状态。状态只在调用线程上有效，交给其他线程执行的查询需在那一侧重新进入只读路由；
+ * 不在请求内的线程（如后台写入、定时任务）没有客户端，写入不影响任何读请求的路由。
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Client> CLIENT = new ThreadLocal<>();
+    /**
+     * 请求之外的只读路由选定的副本，随最外层只读路由退出清除
+     */
+    private static final ThreadLocal<ReplicaRoutingDataSource.Replica> REPLICA = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * 进入只读路由，返回进入前的状态，供 {@link #restore(boolean)} 使用
+     */
+    static boolean enterReadOnly() {
+        boolean previous = isReadOnly();
+        READ_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(boolean previous) {
+        if (previous) {
+            READ_ONLY.set(Boolean.TRUE);
+        } else {
+            READ_ONLY.remove();
+            REPLICA.remove();
+        }
+    }
+
+    public static boolean isReadOnly() {
+        return READ_ONLY.get() != null;
+    }
+
+    /**
+     * 在主库上执行 action：期间取得的连接（含只读事务）都来自主库，且不触发读己之写。
+     * 用于必须读到最新提交、但本身不写入的读取（如与写入事件对齐的快照加载）
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = isPrimary();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (!previous) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static boolean isPrimary() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * 进入客户端作用域，返回进入前的作用域，供 {@link #restoreClient(Client)} 使用
+     *
+     * @param lastWriteAt 客户端上报的最近一次写入时间（epoch 毫秒），0 表示没有
+     * @param onWrite     本次请求第一次写入时回调，参数为写入时间（epoch 毫秒），用于回传给客户端
+     */
+    static Client enterClient(long lastWriteAt, LongConsumer onWrite) {
+        Client previous = CLIENT.get();
+        CLIENT.set(new Client(lastWriteAt, onWrite));
+        return previous;
+    }
+
+    static void restoreClient(Client previous) {
+        if (previous != null) {
+            CLIENT.set(previous);
+        } else {
+            CLIENT.remove();
+        }
+    }
+
+    /**
+     * 当前客户端最近一次写入的时间（epoch 毫秒），不在客户端作用域内或尚无写入时为 0
+     */
+    static long lastWriteAt() {
+        Client client = CLIENT.get();
+        return client == null ? 0 : client.lastWriteAt;
+    }
+
+    /**
+     * 记录当前客户端的一次写入；不在客户端作用域内时忽略
+     */
+    static void markWrite(long now) {
+        Client client = CLIENT.get();
+        if (client == null) {
+            return;
+        }
+        boolean first = !client.written;
+        client.lastWriteAt = now;
+        client.written = true;
+        if (first) {
+            client.onWrite.accept(now);
+        }
+    }
+
+    /**
+     * 当前作用域已选定的副本，尚未选定或不在作用域内时为 null
+     */
+    static ReplicaRoutingDataSource.Replica pinnedReplica() {
+        Client client = CLIENT.get();
+        return client != null ? client.replica : REPLICA.get();
+    }
+
+    /**
+     * 为当前作用域选定副本；不在请求或只读路由内时忽略（只读事务内的查询共用事务的连接）
+     */
+    static void pinReplica(ReplicaRoutingDataSource.Replica replica) {
+        Client client = CLIENT.get();
+        if (client != null) {
+            client.replica = replica;
+        } else if (isReadOnly()) {
+            REPLICA.set(replica);
+        }
+    }
+
+    static final class Client {
+        final LongConsumer onWrite;
+        long lastWriteAt;
+        boolean written;
+        ReplicaRoutingDataSource.Replica replica;
+
+        Client(long lastWriteAt, LongConsumer onWrite) {
+            this.lastWriteAt = lastWriteAt;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.moonlightbox.datasource;
+
+import com.moonlightbox.util.IdParseUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 读己之写按客户端生效：请求期间设置 {@link RoutingContext} 的客户端作用域，
+ * 请求内发生写入时以 Cookie（{@value #COOKIE_NAME}，值为写入时间 epoch 毫秒，有效期为 stickyWindow）回传，
+ * 同一客户端后续请求在窗口内的只读查询走主库，其他客户端不受影响。仅在配置了只读副本时注册（见 DataSourceConfig）
+ */
+public class WriteStickinessFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "mbox_write_at";
+
+    private final int maxAgeSeconds;
+
+    public WriteStickinessFilter(Duration stickyWindow) {
+        this.maxAgeSeconds = (int) Math.max(1, (stickyWindow.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoutingContext.Client previous = RoutingContext.enterClient(lastWriteAt(request), writeAt -> {
+            // 写入发生在生成响应之前；已提交的响应（如流式输出中途）无法再回传
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(writeAt));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge(maxAgeSeconds);
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.restoreClient(previous);
+        }
+    }
+
+    private static long lastWriteAt(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    long value = IdParseUtil.parseLongId(cookie.getValue());
+                    return value > 0 ? value : 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.moonlightbox.dto;
+
+import com.moonlightbox.util.IdParseUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量详情：list 按请求中 ids 的顺序排列（重复 id 只出现一次），不存在的 id 列在 missingIds 中
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDetailDTO<T> {
+    private List<T> list;
+    private List<String> missingIds;
+
+    public static <T> BatchDetailDTO<T> of(List<T> list, List<Long> missing) {
+        List<String> missingIds = new ArrayList<>(missing.size());
+        for (Long id : missing) {
+            missingIds.add(IdParseUtil.toIdString(id));
+        }
+        return new BatchDetailDTO<>(list, missingIds);
+    }
+}
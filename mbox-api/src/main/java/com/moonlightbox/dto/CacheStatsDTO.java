@@ -0,0 +1,16 @@
+package com.moonlightbox.dto;
+
+import lombok.Data;
+
+/**
+ * 缓存统计
+ */
+@Data
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+}
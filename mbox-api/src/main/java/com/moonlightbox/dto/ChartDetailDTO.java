@@ -2,9 +2,6 @@ package com.moonlightbox.dto;
 
 import lombok.Data;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * 图表详情 DTO
  */
@@ -16,5 +13,5 @@ public class ChartDetailDTO {
     private String chartType;
     private String period;
     private String unit;
-    private List<Map<String, Object>> chartData;
+    private ChartSeries chartData;
 }
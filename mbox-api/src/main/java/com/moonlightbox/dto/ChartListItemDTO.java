@@ -2,9 +2,6 @@ package com.moonlightbox.dto;
 
 import lombok.Data;
 
-import java.util.List;
-import java.util.Map;
-
 @Data
 public class ChartListItemDTO {
     private String id;
@@ -13,5 +10,5 @@ public class ChartListItemDTO {
     private String chartType;
     private String period;
     private String unit;
-    private List<Map<String, Object>> chartData;
+    private ChartSeries chartData;
 }
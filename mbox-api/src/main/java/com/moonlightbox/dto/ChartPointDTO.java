@@ -0,0 +1,21 @@
+package com.moonlightbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * 批量写入的一个数据点（对应 content_chart_data 的一行）
+ */
+@Data
+public class ChartPointDTO {
+    private Long chartId;
+    @JsonProperty("xLabel")
+    private String xLabel;
+    @JsonProperty("yValue")
+    private Double yValue;
+    private Integer sortOrder;
+    /**
+     * 采样时间（epoch 毫秒），可选，缺省为服务端接收时间
+     */
+    private Long ts;
+}
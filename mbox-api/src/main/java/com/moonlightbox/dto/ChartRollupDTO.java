@@ -0,0 +1,20 @@
+package com.moonlightbox.dto;
+
+import lombok.Data;
+
+/**
+ * 图表时间分桶聚合（列式，各数组等长，按时间升序）：t 为桶起点（epoch 毫秒）；
+ * 没有数据点的桶 count 为 0、sum 为 0，min / max / avg 为 null
+ */
+@Data
+public class ChartRollupDTO {
+    private String chartId;
+    private String period;
+    private String bucket;
+    private long[] t;
+    private long[] count;
+    private double[] sum;
+    private Double[] min;
+    private Double[] max;
+    private Double[] avg;
+}
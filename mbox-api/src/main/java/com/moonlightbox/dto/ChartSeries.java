@@ -0,0 +1,92 @@
+package com.moonlightbox.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.moonlightbox.util.DownsampleUtil;
+
+/**
+ * 图表数据序列：列式存储（x 标签数组 + y 数值数组），由 {@link ChartSeriesSerializer} 直接流式输出，不构建逐点 Map。
+ * <p>
+ * 默认输出 [{"x":..,"y":..}, ...]；{@link #compact()} 视图输出 {"x":[...],"y":[...]}。
+ * 实例不可变，数组由调用方移交后不得再修改；y 为 NaN 表示缺失值，输出为 null。
+ */
+@JsonSerialize(using = ChartSeriesSerializer.class)
+public final class ChartSeries {
+
+    public static final ChartSeries EMPTY = new ChartSeries(new String[0], new double[0]);
+
+    private final String[] labels;
+    private final double[] values;
+    private final boolean compact;
+
+    public ChartSeries(String[] labels, double[] values) {
+        this(labels, values, false);
+    }
+
+    private ChartSeries(String[] labels, double[] values, boolean compact) {
+        if (labels.length != values.length) {
+            throw new IllegalArgumentException("labels and values length mismatch");
+        }
+        this.labels = labels;
+        this.values = values;
+        this.compact = compact;
+    }
+
+    /**
+     * 共享同一份数据的紧凑格式视图
+     */
+    public ChartSeries compact() {
+        return compact ? this : new ChartSeries(labels, values, true);
+    }
+
+    /**
+     * LTTB 降采样（折线图），点数不超过 maxPoints 时返回自身
+     */
+    public ChartSeries lttb(int maxPoints) {
+        return maxPoints >= size() ? this : select(DownsampleUtil.lttb(values, maxPoints));
+    }
+
+    /**
+     * 等宽分桶聚合降采样（柱状图、饼图），点数不超过 maxPoints 时返回自身。
+     * 每个桶的值按 aggregation 聚合，标签为桶内首个标签，桶内多于一个点时为「首个标签~末个标签」
+     */
+    public ChartSeries bucket(int maxPoints, DownsampleUtil.Aggregation aggregation) {
+        if (maxPoints >= size()) {
+            return this;
+        }
+        double[] v = DownsampleUtil.bucketAggregate(values, maxPoints, aggregation);
+        String[] l = new String[maxPoints];
+        int n = size();
+        for (int b = 0; b < maxPoints; b++) {
+            int first = DownsampleUtil.bucketStart(n, maxPoints, b);
+            int last = DownsampleUtil.bucketStart(n, maxPoints, b + 1) - 1;
+            l[b] = first == last ? labels[first] : labels[first] + "~" + labels[last];
+        }
+        return new ChartSeries(l, v, compact);
+    }
+
+    private ChartSeries select(int[] indices) {
+        String[] l = new String[indices.length];
+        double[] v = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            l[i] = labels[indices[i]];
+            v[i] = values[indices[i]];
+        }
+        return new ChartSeries(l, v, compact);
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public String label(int i) {
+        return labels[i];
+    }
+
+    public double value(int i) {
+        return values[i];
+    }
+}
@@ -0,0 +1,54 @@
+package com.moonlightbox.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * 将 {@link ChartSeries} 直接写入 JsonGenerator：y 以原生 double 输出，NaN 输出为 null
+ */
+public class ChartSeriesSerializer extends StdSerializer<ChartSeries> {
+
+    public ChartSeriesSerializer() {
+        super(ChartSeries.class);
+    }
+
+    @Override
+    public void serialize(ChartSeries series, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int n = series.size();
+        if (series.isCompact()) {
+            gen.writeStartObject(series);
+            gen.writeArrayFieldStart("x");
+            for (int i = 0; i < n; i++) {
+                gen.writeString(series.label(i));
+            }
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("y");
+            for (int i = 0; i < n; i++) {
+                writeValue(gen, series.value(i));
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            return;
+        }
+        gen.writeStartArray(series, n);
+        for (int i = 0; i < n; i++) {
+            gen.writeStartObject();
+            gen.writeStringField("x", series.label(i));
+            gen.writeFieldName("y");
+            writeValue(gen, series.value(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeValue(JsonGenerator gen, double value) throws IOException {
+        if (Double.isNaN(value)) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.moonlightbox.dto;
+
+import lombok.Data;
+
+/**
+ * 图表实时推送的一帧：合并周期内新写入的数据点，chartData 格式同详情（points）
+ */
+@Data
+public class ChartStreamFrameDTO {
+    private String chartId;
+    private ChartSeries chartData;
+}
@@ -0,0 +1,17 @@
+package com.moonlightbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 首页聚合 feed：分组顺序与请求中的 sections 一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedDTO {
+    private List<FeedSectionDTO> sections;
+}
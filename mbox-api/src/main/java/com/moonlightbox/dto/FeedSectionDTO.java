@@ -0,0 +1,16 @@
+package com.moonlightbox.dto;
+
+import lombok.Data;
+
+/**
+ * 聚合 feed 中的一个分组：status 为 ok 时 data 为该类型第一页列表，否则 data 为空
+ */
+@Data
+public class FeedSectionDTO {
+    /** 组件类型：card / video / chart */
+    private String type;
+    private int size;
+    /** ok / timeout（超过单组超时）/ rejected（并发已满）/ error */
+    private String status;
+    private PageResult<?> data;
+}
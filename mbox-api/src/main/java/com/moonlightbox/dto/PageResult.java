@@ -1,5 +1,6 @@
 package com.moonlightbox.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,9 @@ import java.util.List;
 
 /**
  * 分页结果
+ * <p>
+ * offset 分页（page/size）时 nextCursor 为空且不输出；游标分页时 total 为 -1、page 为 0（不统计总数），
+ * 由 nextCursor 指向下一页，为空表示已到末页。
  */
 @Data
 @NoArgsConstructor
@@ -17,4 +21,14 @@ public class PageResult<T> {
     private long total;
     private int page;
     private int size;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public PageResult(List<T> list, long total, int page, int size) {
+        this(list, total, page, size, null);
+    }
+
+    public static <T> PageResult<T> ofCursor(List<T> list, int size, String nextCursor) {
+        return new PageResult<>(list, -1, 0, size, nextCursor);
+    }
 }
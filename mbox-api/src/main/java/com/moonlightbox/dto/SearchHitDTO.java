@@ -0,0 +1,17 @@
+package com.moonlightbox.dto;
+
+import lombok.Data;
+
+/**
+ * 搜索结果项：组件类型（card / video）+ 列表字段 + BM25 得分
+ */
+@Data
+public class SearchHitDTO {
+    private String type;
+    private String id;
+    private String title;
+    private String subtitle;
+    private String imageUrl;
+    private String badge;
+    private double score;
+}
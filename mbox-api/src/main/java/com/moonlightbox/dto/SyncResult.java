@@ -0,0 +1,22 @@
+package com.moonlightbox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 增量同步结果：自上次水位以来新增或修改的详情（按修改时间升序）与已删除的 id。
+ * <p>
+ * since 为新的水位，客户端保存后原样回传；hasMore 为 true 时应立即以新水位继续请求。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResult<T> {
+    private List<T> changed;
+    private List<String> deleted;
+    private String since;
+    private boolean hasMore;
+}
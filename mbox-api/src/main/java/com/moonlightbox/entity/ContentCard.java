@@ -26,4 +26,5 @@ public class ContentCard {
     private String pubDate;
     private String category;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
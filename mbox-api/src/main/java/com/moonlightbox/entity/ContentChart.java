@@ -22,4 +22,9 @@ public class ContentChart {
     private String period;
     private String unit;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    /**
+     * 数据点（content_chart_data）最近一次变化的时间，由触发器维护
+     */
+    private LocalDateTime dataUpdatedAt;
 }
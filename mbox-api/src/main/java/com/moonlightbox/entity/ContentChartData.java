@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 /**
  * 图表数据明细 - 子表
  */
@@ -18,4 +20,8 @@ public class ContentChartData {
     private String xLabel;
     private Double yValue;
     private Integer sortOrder;
+    /**
+     * 采样时间（本地时间），时间分桶聚合按此分桶
+     */
+    private LocalDateTime ts;
 }
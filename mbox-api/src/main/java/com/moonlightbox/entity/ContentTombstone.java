@@ -0,0 +1,25 @@
+package com.moonlightbox.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 删除记录（墓碑），由数据库触发器在删除 card / video / chart 时写入
+ */
+@Data
+@TableName("content_tombstone")
+public class ContentTombstone {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    /**
+     * 组件类型 code（card / video / chart）
+     */
+    private String contentType;
+    private Long contentId;
+    private LocalDateTime deletedAt;
+}
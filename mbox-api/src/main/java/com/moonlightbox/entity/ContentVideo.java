@@ -26,4 +26,5 @@ public class ContentVideo {
     private String resolution;
     private String author;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
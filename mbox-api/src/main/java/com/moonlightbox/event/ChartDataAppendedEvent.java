@@ -0,0 +1,16 @@
+package com.moonlightbox.event;
+
+import com.moonlightbox.entity.ContentChartData;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一批图表数据点已写入数据库（批量写入的每次 flush 在写入事务内发布一次）。
+ * 监听器以 {@code @TransactionalEventListener} 绑定到该事务：默认在提交后于写入线程上执行，
+ * 需与明细一同提交的写入使用 BEFORE_COMMIT 阶段
+ *
+ * @param points 按图表分组的新数据点（带生成的 id），组内保持写入顺序
+ */
+public record ChartDataAppendedEvent(Map<Long, List<ContentChartData>> points) {
+}
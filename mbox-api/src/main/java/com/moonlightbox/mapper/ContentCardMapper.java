@@ -3,7 +3,18 @@ package com.moonlightbox.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.moonlightbox.entity.ContentCard;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
-public interface ContentCardMapper extends BaseMapper<ContentCard> {
+public interface ContentCardMapper extends BaseMapper<ContentCard>, StreamingMapper<ContentCard> {
+
+    @Override
+    @Select("SELECT id, title, subtitle, image_url, badge, content, media_url, author, pub_date, category, created_at FROM content_card ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(ContentCard.class)
+    void streamAll(ResultHandler<ContentCard> handler);
 }
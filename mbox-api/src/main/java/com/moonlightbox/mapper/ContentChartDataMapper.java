@@ -3,7 +3,24 @@ package com.moonlightbox.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.moonlightbox.entity.ContentChartData;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
 
 @Mapper
 public interface ContentChartDataMapper extends BaseMapper<ContentChartData> {
+
+    /**
+     * 流式读取一个图表采样时间不早于 from 的数据点（只取 ts、y_value，走 idx_chart_ts），用于建立时间分桶聚合；
+     * 流式方式同 {@link StreamingMapper#streamAll}
+     */
+    @Select("SELECT ts, y_value FROM content_chart_data WHERE chart_id = #{chartId} AND ts >= #{from}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(ContentChartData.class)
+    void streamSince(@Param("chartId") long chartId, @Param("from") LocalDateTime from, ResultHandler<ContentChartData> handler);
 }
@@ -3,7 +3,18 @@ package com.moonlightbox.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.moonlightbox.entity.ContentChart;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
-public interface ContentChartMapper extends BaseMapper<ContentChart> {
+public interface ContentChartMapper extends BaseMapper<ContentChart>, StreamingMapper<ContentChart> {
+
+    @Override
+    @Select("SELECT id, title, subtitle, chart_type, period, unit, created_at FROM content_chart ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(ContentChart.class)
+    void streamAll(ResultHandler<ContentChart> handler);
 }
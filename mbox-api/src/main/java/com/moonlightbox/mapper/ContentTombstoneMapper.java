@@ -0,0 +1,9 @@
+package com.moonlightbox.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.moonlightbox.entity.ContentTombstone;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface ContentTombstoneMapper extends BaseMapper<ContentTombstone> {
+}
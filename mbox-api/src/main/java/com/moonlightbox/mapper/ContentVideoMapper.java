@@ -3,7 +3,18 @@ package com.moonlightbox.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.moonlightbox.entity.ContentVideo;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
-public interface ContentVideoMapper extends BaseMapper<ContentVideo> {
+public interface ContentVideoMapper extends BaseMapper<ContentVideo>, StreamingMapper<ContentVideo> {
+
+    @Override
+    @Select("SELECT id, title, subtitle, image_url, badge, content, media_url, duration, resolution, author, created_at FROM content_video ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(ContentVideo.class)
+    void streamAll(ResultHandler<ContentVideo> handler);
 }
@@ -0,0 +1,16 @@
+package com.moonlightbox.mapper;
+
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * 可按主键顺序流式读取全表的 Mapper（全表导出、搜索索引构建）。
+ * 实现方在 {@link #streamAll} 上声明各自的 SELECT 与 {@code @Options(resultSetType = FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)}
+ */
+public interface StreamingMapper<T> {
+
+    /**
+     * 按主键顺序流式读取全表：forward-only 结果集 + fetchSize=Integer.MIN_VALUE（Connector/J 逐行流式读取），
+     * 每行回调一次 handler，不在内存中保留结果。结果集读完之前同一连接不能执行其他语句
+     */
+    void streamAll(ResultHandler<T> handler);
+}
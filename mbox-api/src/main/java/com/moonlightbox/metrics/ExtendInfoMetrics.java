@@ -0,0 +1,37 @@
+package com.moonlightbox.metrics;
+
+import com.moonlightbox.util.ExtendInfoUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ExtendInfoUtil} 解析缓存的指标：mbox.extendinfo.parse（result=hit / miss / malformed）与 mbox.extendinfo.cache.size。
+ * 计数器本身是 ExtendInfoUtil 的静态 LongAdder，这里只在抓取时读取，不改变解析路径
+ */
+@Component
+public class ExtendInfoMetrics implements MeterBinder {
+
+    private static final String PARSE_NAME = "mbox.extendinfo.parse";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(PARSE_NAME, ExtendInfoUtil.class, c -> ExtendInfoUtil.cacheHitCount())
+                .description("extendInfo parses served from the parse cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(PARSE_NAME, ExtendInfoUtil.class, c -> ExtendInfoUtil.cacheMissCount())
+                .description("extendInfo parses that missed the parse cache")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(PARSE_NAME, ExtendInfoUtil.class, c -> ExtendInfoUtil.malformedCount())
+                .description("extendInfo values that were not a JSON object")
+                .tag("result", "malformed")
+                .register(registry);
+        Gauge.builder("mbox.extendinfo.cache.size", ExtendInfoUtil::cachedCount)
+                .description("Live entries in the extendInfo parse cache")
+                .register(registry);
+    }
+}
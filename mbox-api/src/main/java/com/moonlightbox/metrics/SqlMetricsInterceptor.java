@@ -0,0 +1,126 @@
+package com.moonlightbox.metrics;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 指标：按 MappedStatement 记录每次 JDBC 执行的耗时（mbox.sql）与返回 / 影响行数（mbox.sql.rows）。
+ * <p>
+ * 拦截 StatementHandler 而非 Executor，分页插件改写后的查询与流式导出（ResultHandler）也只计一次；
+ * 耗时包含执行与结果映射。各语句的 Meter 首次使用时注册并缓存，热路径上只有一次 Map 查找。
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    public static final String TIMER_NAME = "mbox.sql";
+    public static final String ROWS_NAME = "mbox.sql.rows";
+
+    private final MeterRegistry registry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    private record Meters(String statement, String command, Timer success, DistributionSummary rows) {
+    }
+
+    public SqlMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler handler = PluginUtils.realTarget(invocation.getTarget());
+        MappedStatement ms = PluginUtils.mpStatementHandler(handler).mappedStatement();
+        Meters m = meters.computeIfAbsent(ms.getId(), id -> register(id, ms));
+        Object[] args = invocation.getArgs();
+        CountingResultHandler counting = null;
+        if (args.length > 1 && args[1] != null) {
+            // 流式查询（如全表导出）结果不经 List 返回，包装 handler 以统计行数
+            counting = new CountingResultHandler((ResultHandler<Object>) args[1]);
+            args[1] = counting;
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            m.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            m.rows().record(counting != null ? counting.count : rows(result));
+            return result;
+        } catch (Throwable t) {
+            // 失败计时器只在首次出错时注册，避免为每条语句常驻一组空直方图
+            timer(m.statement(), m.command(), "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw t;
+        }
+    }
+
+    private Meters register(String id, MappedStatement ms) {
+        // com.moonlightbox.mapper.ContentCardMapper.selectList → ContentCardMapper.selectList
+        int dot = id.lastIndexOf('.', id.lastIndexOf('.') - 1);
+        String statement = dot < 0 ? id : id.substring(dot + 1);
+        String command = ms.getSqlCommandType().name().toLowerCase(Locale.ROOT);
+        return new Meters(statement, command,
+                timer(statement, command, "success"),
+                DistributionSummary.builder(ROWS_NAME)
+                        .description("Rows returned or affected per SQL execution")
+                        .tags("statement", statement, "command", command)
+                        .register(registry));
+    }
+
+    private Timer timer(String statement, String command, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("SQL execution time per mapped statement")
+                .tags("statement", statement, "command", command, "outcome", outcome)
+                .register(registry);
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer n) {
+            return n;
+        }
+        if (result instanceof int[] counts) {
+            long sum = 0;
+            for (int c : counts) {
+                sum += Math.max(c, 0);
+            }
+            return sum;
+        }
+        return 0;
+    }
+
+    private static final class CountingResultHandler implements ResultHandler<Object> {
+        private final ResultHandler<Object> delegate;
+        private long count;
+
+        CountingResultHandler(ResultHandler<Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void handleResult(ResultContext<?> context) {
+            count++;
+            delegate.handleResult(context);
+        }
+    }
+}
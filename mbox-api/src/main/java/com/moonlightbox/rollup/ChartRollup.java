@@ -0,0 +1,124 @@
+package com.moonlightbox.rollup;
+
+import java.util.List;
+
+/**
+ * 一个图表的时间分桶聚合：{@link #LEVELS} 中每种桶宽一个 {@link RollupRing}，每个点写入全部层级。
+ * <p>
+ * 时间为本地时间按 UTC 换算的 epoch 秒（即 {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}），日桶因此从本地 0 点开始。
+ * 查询选择桶宽能整除输出桶宽、且保留窗口覆盖查询时段的最粗层级，读取的槽数不超过 period / 该层桶宽，与原始点数无关。
+ * 方法均已同步：写入来自写入线程，查询来自请求线程。
+ * <p>
+ * 记录已并入的最大数据点 id：加载时以读取快照中的最大 id 调用 {@link #advanceTo}，之后的增量经 {@link #addIfNewer}
+ * 并入，已包含在加载结果中的点被跳过。
+ */
+public final class ChartRollup {
+
+    /**
+     * 层级：桶宽（秒）与保留的桶数。5 分钟 × 288（24 小时），1 小时 × 720（30 天），1 天 × 30（30 天）；
+     * 每个图表共 1038 个槽，约 41KB
+     */
+    public static final List<Level> LEVELS = List.of(
+            new Level(300, 288),
+            new Level(3600, 720),
+            new Level(86400, 30));
+
+    public record Level(int width, int capacity) {
+    }
+
+    private final String period;
+    private final RollupRing[] rings;
+    /**
+     * 已并入的最大数据点 id，0 表示没有
+     */
+    private long lastId;
+
+    public ChartRollup(String period) {
+        this.period = period;
+        this.rings = new RollupRing[LEVELS.size()];
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new RollupRing(LEVELS.get(i).width(), LEVELS.get(i).capacity());
+        }
+    }
+
+    /**
+     * 图表的 period 字段（加载时读取），作为查询的默认时段
+     */
+    public String period() {
+        return period;
+    }
+
+    public synchronized void add(long epochSecond, double value) {
+        for (RollupRing ring : rings) {
+            ring.add(epochSecond, value);
+        }
+    }
+
+    /**
+     * id 大于已并入的最大 id 时并入该点并返回 true，否则忽略
+     */
+    public synchronized boolean addIfNewer(long id, long epochSecond, double value) {
+        if (id <= lastId) {
+            return false;
+        }
+        lastId = id;
+        add(epochSecond, value);
+        return true;
+    }
+
+    /**
+     * 声明 id 不大于 maxId 的点均已并入（加载完成时调用）
+     */
+    public synchronized void advanceTo(long maxId) {
+        lastId = Math.max(lastId, maxId);
+    }
+
+    /**
+     * 并入某一层级一个桶的部分聚合；width 不属于任何层级时忽略
+     */
+    public synchronized void merge(int width, long bucket, long count, double sum, double min, double max) {
+        for (RollupRing ring : rings) {
+            if (ring.width() == width) {
+                ring.merge(bucket, count, sum, min, max);
+            }
+        }
+    }
+
+    /**
+     * 能回答 (period, bucket) 查询的层级下标，没有时返回 -1
+     */
+    public static int levelFor(long period, long bucket) {
+        for (int i = LEVELS.size() - 1; i >= 0; i--) {
+            Level level = LEVELS.get(i);
+            if (bucket % level.width() == 0 && (long) level.width() * level.capacity() >= period) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 截至 now（含 now 所在的桶）的 period / bucket 个输出桶，首个桶起点为 {@code start * bucket} 秒；
+     * period 不是 bucket 的整数倍或没有可用层级时返回 null
+     */
+    public synchronized Result query(long now, long period, long bucket) {
+        int level = levelFor(period, bucket);
+        if (level < 0 || period % bucket != 0) {
+            return null;
+        }
+        int n = (int) (period / bucket);
+        long start = Math.floorDiv(now, bucket) - n + 1;
+        RollupRing ring = rings[level];
+        int ratio = (int) (bucket / ring.width());
+        RollupRing.Aggregate out = new RollupRing.Aggregate(n);
+        ring.aggregate(start * ratio, n, ratio, out);
+        return new Result(start, out);
+    }
+
+    /**
+     * @param start     首个输出桶的桶号（秒数 / bucket）
+     * @param aggregate 各输出桶的聚合
+     */
+    public record Result(long start, RollupRing.Aggregate aggregate) {
+    }
+}
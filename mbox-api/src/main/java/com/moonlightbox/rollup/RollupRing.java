@@ -0,0 +1,128 @@
+package com.moonlightbox.rollup;
+
+import java.util.Arrays;
+
+/**
+ * 单一桶宽的环形聚合：桶 k（秒数 / width）固定存放在槽 k mod capacity，每槽记录所属桶号与 count / sum / min / max。
+ * <p>
+ * 全部状态为 5 个定长 primitive 数组；写入较新的桶时直接覆盖同槽的旧桶，因此只保留最近 capacity 个桶，
+ * 早于保留窗口的点被忽略。不做同步，由调用方保证。
+ */
+public final class RollupRing {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int width;
+    private final int capacity;
+    private final long[] buckets;
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+
+    public RollupRing(int width, int capacity) {
+        this.width = width;
+        this.capacity = capacity;
+        this.buckets = new long[capacity];
+        this.counts = new long[capacity];
+        this.sums = new double[capacity];
+        this.mins = new double[capacity];
+        this.maxs = new double[capacity];
+        Arrays.fill(buckets, EMPTY);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /**
+     * 保留窗口（秒）
+     */
+    public long span() {
+        return (long) width * capacity;
+    }
+
+    public void add(long epochSecond, double value) {
+        merge(Math.floorDiv(epochSecond, width), 1, value, value, value);
+    }
+
+    /**
+     * 把一个桶的部分聚合并入（加载持久化的聚合、批量写入的增量）
+     */
+    public void merge(long bucket, long count, double sum, double min, double max) {
+        int slot = (int) Math.floorMod(bucket, (long) capacity);
+        long current = buckets[slot];
+        if (current != bucket) {
+            if (current > bucket) {
+                return;
+            }
+            buckets[slot] = bucket;
+            counts[slot] = 0;
+            sums[slot] = 0;
+            mins[slot] = Double.POSITIVE_INFINITY;
+            maxs[slot] = Double.NEGATIVE_INFINITY;
+        }
+        counts[slot] += count;
+        sums[slot] += sum;
+        mins[slot] = Math.min(mins[slot], min);
+        maxs[slot] = Math.max(maxs[slot], max);
+    }
+
+    /**
+     * 把桶 [from, from + n * ratio) 每 ratio 个合并为一个输出桶，累加到 out 的 [0, n)；只读取 n * ratio 个槽，与点数无关
+     */
+    void aggregate(long from, int n, int ratio, Aggregate out) {
+        for (int i = 0; i < n; i++) {
+            long first = from + (long) i * ratio;
+            for (int r = 0; r < ratio; r++) {
+                long bucket = first + r;
+                int slot = (int) Math.floorMod(bucket, (long) capacity);
+                if (buckets[slot] == bucket) {
+                    out.counts[i] += counts[slot];
+                    out.sums[i] += sums[slot];
+                    out.mins[i] = Math.min(out.mins[i], mins[slot]);
+                    out.maxs[i] = Math.max(out.maxs[i], maxs[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询结果：n 个连续输出桶，count 为 0 的桶 min / max 分别为 +Inf / -Inf
+     */
+    public static final class Aggregate {
+        final long[] counts;
+        final double[] sums;
+        final double[] mins;
+        final double[] maxs;
+
+        Aggregate(int n) {
+            counts = new long[n];
+            sums = new double[n];
+            mins = new double[n];
+            maxs = new double[n];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+
+        public int size() {
+            return counts.length;
+        }
+
+        public long count(int i) {
+            return counts[i];
+        }
+
+        public double sum(int i) {
+            return sums[i];
+        }
+
+        public double min(int i) {
+            return mins[i];
+        }
+
+        public double max(int i) {
+            return maxs[i];
+        }
+    }
+}
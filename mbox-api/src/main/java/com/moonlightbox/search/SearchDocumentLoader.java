@@ -0,0 +1,128 @@
+package com.moonlightbox.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.datasource.ReadOnlyRoute;
+import com.moonlightbox.entity.ContentCard;
+import com.moonlightbox.entity.ContentVideo;
+import com.moonlightbox.mapper.ContentCardMapper;
+import com.moonlightbox.mapper.ContentVideoMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 从 content_card / content_video 读取待索引的文档。全量构建流式读取整表，增量按 (created_at, id) 水位 seek；
+ * 均走只读副本（如已配置）。
+ * <p>
+ * 两者都只读取 created_at 不晚于 ceiling 的行：更近的行可能与尚未提交（或尚未复制到副本）的更早的行交错，
+ * 若先索引它们并推进水位，之后才可见的更早的行会被永久跳过，因此留到 ceiling 越过它们之后
+ */
+@Component
+@ReadOnlyRoute
+@RequiredArgsConstructor
+public class SearchDocumentLoader {
+
+    private final ContentCardMapper contentCardMapper;
+    private final ContentVideoMapper contentVideoMapper;
+
+    /**
+     * 已索引的最大 (created_at, id)；createdAt 为 null 表示该表尚无已索引的行
+     */
+    public record Watermark(LocalDateTime createdAt, long id) {
+
+        static final Watermark EMPTY = new Watermark(null, 0);
+
+        Watermark max(LocalDateTime createdAt, long id) {
+            if (createdAt == null) {
+                return this;
+            }
+            if (this.createdAt == null || createdAt.isAfter(this.createdAt)
+                    || (createdAt.isEqual(this.createdAt) && id > this.id)) {
+                return new Watermark(createdAt, id);
+            }
+            return this;
+        }
+    }
+
+    public record Watermarks(Watermark card, Watermark video) {
+    }
+
+    /**
+     * 全量：流式读取两张表中 created_at 不晚于 ceiling 的行加入 builder，返回读到的最大水位
+     */
+    public Watermarks loadAll(SegmentBuilder builder, LocalDateTime ceiling) {
+        Watermark[] card = {Watermark.EMPTY};
+        contentCardMapper.streamAll(ctx -> {
+            ContentCard e = ctx.getResultObject();
+            if (visible(e.getCreatedAt(), ceiling)) {
+                addCard(builder, e);
+                card[0] = card[0].max(e.getCreatedAt(), e.getId());
+            }
+        });
+        Watermark[] video = {Watermark.EMPTY};
+        contentVideoMapper.streamAll(ctx -> {
+            ContentVideo e = ctx.getResultObject();
+            if (visible(e.getCreatedAt(), ceiling)) {
+                addVideo(builder, e);
+                video[0] = video[0].max(e.getCreatedAt(), e.getId());
+            }
+        });
+        return new Watermarks(card[0], video[0]);
+    }
+
+    /**
+     * 增量：每张表读取水位之后、created_at 不晚于 ceiling 的至多 limit 行（按 created_at, id 升序）加入 builder，返回新的水位
+     */
+    public Watermarks loadSince(SegmentBuilder builder, Watermarks from, LocalDateTime ceiling, int limit) {
+        LambdaQueryWrapper<ContentCard> cardQuery = new LambdaQueryWrapper<ContentCard>()
+                .select(ContentCard::getId, ContentCard::getTitle, ContentCard::getSubtitle, ContentCard::getContent,
+                        ContentCard::getAuthor, ContentCard::getCategory, ContentCard::getCreatedAt)
+                .le(ContentCard::getCreatedAt, ceiling)
+                .orderByAsc(ContentCard::getCreatedAt, ContentCard::getId);
+        Watermark card = from.card();
+        if (card.createdAt() != null) {
+            cardQuery.and(w -> w.gt(ContentCard::getCreatedAt, card.createdAt())
+                    .or(o -> o.eq(ContentCard::getCreatedAt, card.createdAt()).gt(ContentCard::getId, card.id())));
+        }
+        Watermark cardNext = card;
+        for (ContentCard e : contentCardMapper.selectPage(new Page<>(1, limit, false), cardQuery).getRecords()) {
+            addCard(builder, e);
+            cardNext = cardNext.max(e.getCreatedAt(), e.getId());
+        }
+
+        LambdaQueryWrapper<ContentVideo> videoQuery = new LambdaQueryWrapper<ContentVideo>()
+                .select(ContentVideo::getId, ContentVideo::getTitle, ContentVideo::getSubtitle, ContentVideo::getContent,
+                        ContentVideo::getAuthor, ContentVideo::getCreatedAt)
+                .le(ContentVideo::getCreatedAt, ceiling)
+                .orderByAsc(ContentVideo::getCreatedAt, ContentVideo::getId);
+        Watermark video = from.video();
+        if (video.createdAt() != null) {
+            videoQuery.and(w -> w.gt(ContentVideo::getCreatedAt, video.createdAt())
+                    .or(o -> o.eq(ContentVideo::getCreatedAt, video.createdAt()).gt(ContentVideo::getId, video.id())));
+        }
+        Watermark videoNext = video;
+        for (ContentVideo e : contentVideoMapper.selectPage(new Page<>(1, limit, false), videoQuery).getRecords()) {
+            addVideo(builder, e);
+            videoNext = videoNext.max(e.getCreatedAt(), e.getId());
+        }
+        return new Watermarks(cardNext, videoNext);
+    }
+
+    /**
+     * created_at 为空的行没有水位可推进，全量时照常索引（增量查询不会再读到它们）
+     */
+    private static boolean visible(LocalDateTime createdAt, LocalDateTime ceiling) {
+        return createdAt == null || !createdAt.isAfter(ceiling);
+    }
+
+    private static void addCard(SegmentBuilder builder, ContentCard e) {
+        builder.add(ContentType.CARD, e.getId(), e.getTitle(), e.getSubtitle(), e.getContent(), e.getAuthor(), e.getCategory());
+    }
+
+    private static void addVideo(SegmentBuilder builder, ContentVideo e) {
+        builder.add(ContentType.VIDEO, e.getId(), e.getTitle(), e.getSubtitle(), e.getContent(), e.getAuthor(), null);
+    }
+}
@@ -0,0 +1,252 @@
+package com.moonlightbox.search;
+
+import com.moonlightbox.common.ContentType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 内存倒排索引：由若干不可变 {@link Segment} 组成，加入新段时整体替换段列表，查询无需加锁。
+ * <p>
+ * 查询按 {@link Tokenizer} 分词，以 BM25 打分（各词得分相加，即 OR 语义），逐文档归并各词的倒排表，
+ * 用容量为 k 的最小堆保留得分最高的 k 个结果。段数超过 maxSegments 时合并总文档数最小的相邻两段（分层合并）：
+ * 全量构建的大段只在增量段累积到与其相当时才参与合并，每个文档被复制的次数约为 log(总数 / 批大小)。
+ */
+public final class SearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    private final int maxSegments;
+    private volatile List<Segment> segments = List.of();
+
+    public record Hit(ContentType type, long id, double score) {
+    }
+
+    /**
+     * @param hits    得分从高到低的前 k 个结果
+     * @param matched 至少命中一个词的文档数
+     */
+    public record Result(List<Hit> hits, int matched) {
+    }
+
+    public SearchIndex(int maxSegments) {
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    /**
+     * 加入一个段（写入方串行调用）
+     */
+    public synchronized void add(Segment segment) {
+        if (segment.size() == 0) {
+            return;
+        }
+        List<Segment> next = new ArrayList<>(segments);
+        next.add(segment);
+        while (next.size() > maxSegments) {
+            int at = smallestAdjacentPair(next);
+            List<Segment> pair = next.subList(at, at + 2);
+            Segment merged = Segment.merge(pair);
+            pair.clear();
+            next.add(at, merged);
+        }
+        segments = List.copyOf(next);
+    }
+
+    /**
+     * 总文档数最小的相邻两段的起始下标；同样大小时取较新的一对。只合并相邻段，保持段的写入顺序
+     */
+    private static int smallestAdjacentPair(List<Segment> segments) {
+        int best = 0;
+        long bestSize = Long.MAX_VALUE;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long size = (long) segments.get(i).size() + segments.get(i + 1).size();
+            if (size <= bestSize) {
+                best = i;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 以 segment 替换全部现有段（全量重建）
+     */
+    public synchronized void reset(Segment segment) {
+        segments = List.of(segment);
+    }
+
+    public int size() {
+        int n = 0;
+        for (Segment s : segments) {
+            n += s.size();
+        }
+        return n;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * @param type 只返回该类型的文档，null 表示不限
+     * @param k    返回的结果数
+     */
+    public Result search(String query, ContentType type, int k) {
+        Set<String> unique = new LinkedHashSet<>();
+        Tokenizer.tokenize(query, unique::add);
+        List<Segment> segs = segments;
+        if (unique.isEmpty() || segs.isEmpty() || k <= 0) {
+            return new Result(List.of(), 0);
+        }
+        String[] terms = unique.toArray(new String[0]);
+        long docCount = 0;
+        long totalLength = 0;
+        for (Segment s : segs) {
+            docCount += s.size;
+            totalLength += s.totalLength;
+        }
+        double avgLength = Math.max(1.0, (double) totalLength / docCount);
+        double[] idf = new double[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            long df = 0;
+            for (Segment s : segs) {
+                Segment.Postings p = s.terms.get(terms[t]);
+                df += p == null ? 0 : p.size();
+            }
+            idf[t] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+        }
+
+        byte typeFilter = type == null ? -1 : (byte) type.ordinal();
+        TopK top = new TopK(k);
+        int matched = 0;
+        Segment.Postings[] lists = new Segment.Postings[terms.length];
+        int[] pos = new int[terms.length];
+        for (int si = 0; si < segs.size(); si++) {
+            Segment s = segs.get(si);
+            for (int t = 0; t < terms.length; t++) {
+                lists[t] = s.terms.get(terms[t]);
+                pos[t] = 0;
+            }
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int t = 0; t < terms.length; t++) {
+                    if (lists[t] != null && pos[t] < lists[t].size()) {
+                        doc = Math.min(doc, lists[t].docs()[pos[t]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+                double norm = K1 * (1 - B + B * s.lengths[doc] / avgLength);
+                double score = 0;
+                for (int t = 0; t < terms.length; t++) {
+                    if (lists[t] != null && pos[t] < lists[t].size() && lists[t].docs()[pos[t]] == doc) {
+                        int tf = lists[t].freq(pos[t]);
+                        score += idf[t] * tf * (K1 + 1) / (tf + norm);
+                        pos[t]++;
+                    }
+                }
+                if (typeFilter < 0 || s.types[doc] == typeFilter) {
+                    matched++;
+                    top.offer(score, ((long) si << 32) | doc);
+                }
+            }
+        }
+
+        top.sortDescending();
+        List<Hit> hits = new ArrayList<>(top.size);
+        for (int i = 0; i < top.size; i++) {
+            Segment s = segs.get((int) (top.refs[i] >>> 32));
+            int doc = (int) top.refs[i];
+            hits.add(new Hit(s.type(doc), s.ids[doc], top.scores[i]));
+        }
+        return new Result(hits, matched);
+    }
+
+    /**
+     * 容量固定的最小堆（堆顶为当前第 k 名），基本类型数组实现；同分时先入者优先
+     */
+    static final class TopK {
+        final double[] scores;
+        final long[] refs;
+        int size;
+
+        TopK(int k) {
+            scores = new double[k];
+            refs = new long[k];
+        }
+
+        void offer(double score, long ref) {
+            if (size < scores.length) {
+                scores[size] = score;
+                refs[size] = ref;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                scores[0] = score;
+                refs[0] = ref;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * 原地堆排序为得分从高到低，之后 scores / refs 的前 size 项即为结果（不可再 offer）
+         */
+        void sortDescending() {
+            int n = size;
+            for (int end = n - 1; end > 0; end--) {
+                // 把堆顶（当前最小值）换到末尾
+                swap(0, end);
+                size = end;
+                siftDown(0);
+            }
+            size = n;
+        }
+
+        private boolean less(int a, int b) {
+            // 同分时后入者（ref 更大）视为更小，先被淘汰
+            return scores[a] < scores[b] || (scores[a] == scores[b] && refs[a] > refs[b]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    break;
+                }
+                int smallest = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+                if (!less(smallest, i)) {
+                    break;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double s = scores[a];
+            scores[a] = scores[b];
+            scores[b] = s;
+            long r = refs[a];
+            refs[a] = refs[b];
+            refs[b] = r;
+        }
+    }
+}
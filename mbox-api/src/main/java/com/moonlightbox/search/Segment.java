@@ -0,0 +1,98 @@
+package com.moonlightbox.search;
+
+import com.moonlightbox.common.ContentType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 不可变的索引段：文档按加入顺序编号（段内序号），倒排表按序号升序存放。
+ * <p>
+ * 每个文档记录组件类型、主键与加权后的词数（BM25 的文档长度）；词频上限 255。
+ */
+public final class Segment {
+
+    final long[] ids;
+    final byte[] types;
+    final int[] lengths;
+    final int size;
+    final long totalLength;
+    final Map<String, Postings> terms;
+
+    /**
+     * 某个词的倒排表：docs 为段内序号（升序），freqs 为对应的加权词频
+     */
+    record Postings(int[] docs, byte[] freqs) {
+
+        int size() {
+            return docs.length;
+        }
+
+        int freq(int i) {
+            return freqs[i] & 0xFF;
+        }
+    }
+
+    Segment(long[] ids, byte[] types, int[] lengths, int size, long totalLength, Map<String, Postings> terms) {
+        this.ids = ids;
+        this.types = types;
+        this.lengths = lengths;
+        this.size = size;
+        this.totalLength = totalLength;
+        this.terms = terms;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    ContentType type(int doc) {
+        return ContentType.values()[types[doc]];
+    }
+
+    /**
+     * 依次合并多个段，后一个段的序号整体后移
+     */
+    static Segment merge(Iterable<Segment> segments) {
+        int size = 0;
+        long totalLength = 0;
+        for (Segment s : segments) {
+            size += s.size;
+            totalLength += s.totalLength;
+        }
+        long[] ids = new long[size];
+        byte[] types = new byte[size];
+        int[] lengths = new int[size];
+        Map<String, int[]> termSizes = new HashMap<>();
+        int offset = 0;
+        for (Segment s : segments) {
+            System.arraycopy(s.ids, 0, ids, offset, s.size);
+            System.arraycopy(s.types, 0, types, offset, s.size);
+            System.arraycopy(s.lengths, 0, lengths, offset, s.size);
+            offset += s.size;
+            s.terms.forEach((term, p) -> termSizes.computeIfAbsent(term, k -> new int[1])[0] += p.size());
+        }
+        Map<String, Postings> terms = new HashMap<>(termSizes.size() * 4 / 3 + 1);
+        termSizes.forEach((term, n) -> terms.put(term, new Postings(new int[n[0]], new byte[n[0]])));
+        Map<String, int[]> filled = new HashMap<>(termSizes.size() * 4 / 3 + 1);
+        offset = 0;
+        for (Segment s : segments) {
+            int base = offset;
+            s.terms.forEach((term, p) -> {
+                Postings target = terms.get(term);
+                int[] at = filled.computeIfAbsent(term, k -> new int[1]);
+                for (int i = 0; i < p.size(); i++) {
+                    target.docs()[at[0] + i] = p.docs()[i] + base;
+                }
+                System.arraycopy(p.freqs(), 0, target.freqs(), at[0], p.size());
+                at[0] += p.size();
+            });
+            offset += s.size;
+        }
+        return new Segment(ids, types, lengths, size, totalLength, terms);
+    }
+}
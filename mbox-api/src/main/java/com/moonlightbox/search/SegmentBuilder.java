@@ -0,0 +1,92 @@
+package com.moonlightbox.search;
+
+import com.moonlightbox.common.ContentType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 构建一个索引段（单线程使用）：逐个加入文档，最后 {@link #build()} 得到不可变的 {@link Segment}。
+ * <p>
+ * 字段按权重累加词频：标题 3、副标题 2，正文 / 作者 / 分类 1。
+ */
+public final class SegmentBuilder {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUBTITLE_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+
+    private long[] ids = new long[1024];
+    private byte[] types = new byte[1024];
+    private int[] lengths = new int[1024];
+    private int size;
+    private long totalLength;
+    private final Map<String, PostingsBuilder> terms = new HashMap<>();
+
+    private int weight;
+    private final Consumer<String> sink = this::addToken;
+
+    public void add(ContentType type, long id, String title, String subtitle, String content, String author,
+                    String category) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            types = Arrays.copyOf(types, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        ids[size] = id;
+        types[size] = (byte) type.ordinal();
+        weight = TITLE_WEIGHT;
+        Tokenizer.tokenize(title, sink);
+        weight = SUBTITLE_WEIGHT;
+        Tokenizer.tokenize(subtitle, sink);
+        weight = BODY_WEIGHT;
+        Tokenizer.tokenize(content, sink);
+        Tokenizer.tokenize(author, sink);
+        Tokenizer.tokenize(category, sink);
+        totalLength += lengths[size];
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Segment build() {
+        Map<String, Segment.Postings> built = new HashMap<>(terms.size() * 4 / 3 + 1);
+        terms.forEach((term, p) -> built.put(term, p.build()));
+        return new Segment(Arrays.copyOf(ids, size), Arrays.copyOf(types, size), Arrays.copyOf(lengths, size), size,
+                totalLength, built);
+    }
+
+    private void addToken(String token) {
+        lengths[size] += weight;
+        terms.computeIfAbsent(token, k -> new PostingsBuilder()).add(size, weight);
+    }
+
+    private static final class PostingsBuilder {
+        int[] docs = new int[4];
+        byte[] freqs = new byte[4];
+        int size;
+
+        void add(int doc, int weight) {
+            if (size > 0 && docs[size - 1] == doc) {
+                freqs[size - 1] = (byte) Math.min(255, (freqs[size - 1] & 0xFF) + weight);
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = (byte) weight;
+            size++;
+        }
+
+        Segment.Postings build() {
+            return new Segment.Postings(Arrays.copyOf(docs, size), Arrays.copyOf(freqs, size));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.moonlightbox.search;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * 分词：连续的汉字按相邻两字切分为二元词（bigram，单个汉字原样输出），连续的字母 / 数字作为一个词并转小写，
+ * 其余字符（空白、标点、markdown 符号）作为分隔符。索引与查询使用同一规则。
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < n && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    sink.accept(String.valueOf(c));
+                } else {
+                    for (int j = start; j < i - 1; j++) {
+                        sink.accept(text.substring(j, j + 2));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < n && Character.isLetterOrDigit(text.charAt(i)) && !isCjk(text.charAt(i))) {
+                    i++;
+                }
+                sink.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * CJK 统一汉字（含扩展 A 区与兼容汉字）
+     */
+    static boolean isCjk(char c) {
+        return (c >= '\u4E00' && c <= '\u9FFF') || (c >= '\u3400' && c <= '\u4DBF') || (c >= '\uF900' && c <= '\uFAFF');
+    }
+}
@@ -0,0 +1,349 @@
+package com.moonlightbox.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.moonlightbox.dto.ChartPointDTO;
+import com.moonlightbox.entity.ContentChart;
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.event.ChartDataAppendedEvent;
+import com.moonlightbox.mapper.ContentChartMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 图表数据点批量写入：请求线程校验后放入有界缓冲区（放不下时整批拒绝，由调用方返回 429），
+ * 单个后台线程攒批后以 JDBC batch insert 写入（Connector/J rewriteBatchedStatements 改写为多值 INSERT）。
+ * <p>
+ * 攒满 batch-size 个点立即写入，否则首个点最多等待 flush-interval。每次写入在一个事务内完成，
+ * 通过会话变量 @mbox_bulk_ingest 跳过 content_chart_data 的逐行触发器，改为每个图表只刷新一次 data_updated_at；
+ * 事务内发布 {@link ChartDataAppendedEvent}，数据点带有生成的 id：需要与明细一同提交的监听器在提交前执行
+ * （{@code @TransactionalEventListener(phase = BEFORE_COMMIT)}），其余在提交后执行（失效详情缓存等）。
+ * 写入线程串行提交，数据点 id 随提交顺序递增：从数据库读取后靠事件增量维护的一方可按 id 跳过读取结果中已包含的点。
+ * <p>
+ * 点在写入前已向客户端确认（202）：死锁、锁等待超时、连接失败等可重试的异常按指数退避重试至多 max-attempts 次，
+ * 仍失败的批次丢弃并计入 mbox.ingest.points{result=dropped}，重试次数见 mbox.ingest.retries。
+ */
+@Slf4j
+@Service
+public class ChartIngestService {
+
+    private static final String INSERT_SQL = "INSERT INTO content_chart_data (chart_id, x_label, y_value, sort_order, ts) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_LABEL_LENGTH = 256;
+    /**
+     * 采样时间允许超前服务端时间的上限（客户端时钟偏差）
+     */
+    private static final long MAX_CLOCK_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    /**
+     * 重试退避的上限
+     */
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    private final ContentChartMapper contentChartMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<ContentChartData> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxRequestPoints;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter retries;
+    private final Timer flushTimer;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public ChartIngestService(ContentChartMapper contentChartMapper,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${mbox.ingest.buffer-capacity:100000}") int bufferCapacity,
+                              @Value("${mbox.ingest.batch-size:2000}") int batchSize,
+                              @Value("${mbox.ingest.flush-interval:200ms}") Duration flushInterval,
+                              @Value("${mbox.ingest.max-request-points:10000}") int maxRequestPoints,
+                              @Value("${mbox.ingest.max-attempts:5}") int maxAttempts,
+                              @Value("${mbox.ingest.retry-backoff:100ms}") Duration retryBackoff) {
+        this.contentChartMapper = contentChartMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxRequestPoints = Math.min(maxRequestPoints, bufferCapacity);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(1, retryBackoff.toMillis());
+
+        meterRegistry.gauge("mbox.ingest.buffer", buffer, Collection::size);
+        this.accepted = meterRegistry.counter("mbox.ingest.points", "result", "accepted");
+        this.rejected = meterRegistry.counter("mbox.ingest.points", "result", "rejected");
+        this.written = meterRegistry.counter("mbox.ingest.points", "result", "written");
+        this.dropped = meterRegistry.counter("mbox.ingest.points", "result", "dropped");
+        this.retries = meterRegistry.counter("mbox.ingest.retries");
+        this.flushTimer = meterRegistry.timer("mbox.ingest.flush");
+
+        this.writer = new Thread(this::runWriter, "chart-ingest-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * 停止接收并等待后台线程写完缓冲区中剩余的点
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * 校验并转换请求中的数据点；为空、超过 max-request-points 个，或任一点缺少字段 / y 非有限值 / 标签过长 /
+     * 采样时间为负或超前服务端时间 5 分钟以上时返回 null。未给出采样时间的点取当前时间
+     */
+    public List<ContentChartData> validate(List<ChartPointDTO> points) {
+        if (points == null || points.isEmpty() || points.size() > maxRequestPoints)
+            return null;
+        long now = System.currentTimeMillis();
+        LocalDateTime received = LocalDateTime.now();
+        List<ContentChartData> result = new ArrayList<>(points.size());
+        for (ChartPointDTO p : points) {
+            if (p == null || p.getChartId() == null || p.getXLabel() == null || p.getYValue() == null
+                    || p.getSortOrder() == null || !Double.isFinite(p.getYValue())
+                    || p.getXLabel().length() > MAX_LABEL_LENGTH
+                    || (p.getTs() != null && (p.getTs() < 0 || p.getTs() > now + MAX_CLOCK_SKEW_MILLIS)))
+                return null;
+            ContentChartData row = new ContentChartData();
+            row.setChartId(p.getChartId());
+            row.setXLabel(p.getXLabel());
+            row.setYValue(p.getYValue());
+            row.setSortOrder(p.getSortOrder());
+            row.setTs(p.getTs() == null ? received
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getTs()), ZoneId.systemDefault()));
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * 数据点引用的图表中不存在的 id（一次 IN 查询）
+     */
+    public List<Long> unknownCharts(List<ContentChartData> points) {
+        Set<Long> ids = points.stream().map(ContentChartData::getChartId).collect(Collectors.toSet());
+        Set<Long> known = existingCharts(ids);
+        return ids.stream().filter(id -> !known.contains(id)).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * 整批放入缓冲区；剩余容量不足时一个也不放入并返回 false（背压）
+     */
+    public synchronized boolean offer(List<ContentChartData> points) {
+        if (!running || buffer.remainingCapacity() < points.size()) {
+            rejected.increment(points.size());
+            return false;
+        }
+        // 只有本方法（已同步）向缓冲区添加元素，检查后容量不会变小
+        buffer.addAll(points);
+        accepted.increment(points.size());
+        return true;
+    }
+
+    public int buffered() {
+        return buffer.size();
+    }
+
+    private void runWriter() {
+        List<ContentChartData> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                ContentChartData first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    ContentChartData next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                log.error("Chart ingest writer interrupted, {} points dropped", batch.size());
+                dropped.increment(batch.size());
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Flush {} chart points failed, dropped", batch.size(), e);
+                dropped.increment(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<ContentChartData> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        List<ContentChartData> rows = batch;
+        boolean pruned = false;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                commit(rows);
+                break;
+            } catch (TransientDataAccessException | RecoverableDataAccessException | DataAccessResourceFailureException e) {
+                // 死锁、锁等待超时、连接失败 / 主从切换：整批在新事务中重试
+                if (attempt >= maxAttempts) {
+                    drop(rows, e);
+                    return;
+                }
+                long backoff = Math.min(retryBackoffMillis << Math.min(attempt - 1, 20), MAX_BACKOFF_MILLIS);
+                log.warn("Flush {} chart points failed (attempt {}/{}), retry in {} ms", rows.size(), attempt, maxAttempts,
+                        backoff, e);
+                retries.increment();
+                Thread.sleep(backoff);
+            } catch (DataAccessException e) {
+                // 缓冲期间图表被删除时外键约束失败：去掉已不存在的图表的点后重试
+                if (pruned) {
+                    drop(rows, e);
+                    return;
+                }
+                pruned = true;
+                Set<Long> known = existingCharts(rows.stream().map(ContentChartData::getChartId).collect(Collectors.toSet()));
+                List<ContentChartData> kept = rows.stream().filter(p -> known.contains(p.getChartId())).collect(Collectors.toList());
+                if (kept.size() == rows.size()) {
+                    drop(rows, e);
+                    return;
+                }
+                log.warn("Dropped {} points of deleted charts", rows.size() - kept.size());
+                dropped.increment(rows.size() - kept.size());
+                rows = kept;
+                if (rows.isEmpty()) {
+                    return;
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        written.increment(rows.size());
+    }
+
+    private void drop(List<ContentChartData> rows, DataAccessException e) {
+        log.error("Flush {} chart points failed, dropped", rows.size(), e);
+        dropped.increment(rows.size());
+    }
+
+    /**
+     * 在一个事务内写入并发布事件
+     */
+    private void commit(List<ContentChartData> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            write(rows);
+            eventPublisher.publishEvent(new ChartDataAppendedEvent(groupByChart(rows)));
+        });
+    }
+
+    /**
+     * 批量插入并把生成的 id 写回各点
+     */
+    private void write(List<ContentChartData> rows) {
+        jdbcTemplate.execute("SET @mbox_bulk_ingest = 1");
+        try {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ContentChartData p = rows.get(i);
+                            ps.setLong(1, p.getChartId());
+                            ps.setString(2, p.getXLabel());
+                            ps.setDouble(3, p.getYValue());
+                            ps.setInt(4, p.getSortOrder());
+                            ps.setObject(5, p.getTs());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+            }
+            Set<Long> chartIds = rows.stream().map(ContentChartData::getChartId).collect(Collectors.toSet());
+            String placeholders = String.join(",", Collections.nCopies(chartIds.size(), "?"));
+            jdbcTemplate.update("UPDATE content_chart SET data_updated_at = CURRENT_TIMESTAMP(3) WHERE id IN ("
+                    + placeholders + ")", chartIds.toArray());
+        } finally {
+            // 连接归还连接池后会被复用，会话变量必须清除
+            jdbcTemplate.execute("SET @mbox_bulk_ingest = NULL");
+        }
+    }
+
+    private Set<Long> existingCharts(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return contentChartMapper.selectList(new LambdaQueryWrapper<ContentChart>()
+                        .select(ContentChart::getId)
+                        .in(ContentChart::getId, ids))
+                .stream().map(ContentChart::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static Map<Long, List<ContentChartData>> groupByChart(List<ContentChartData> rows) {
+        Map<Long, List<ContentChartData>> grouped = new LinkedHashMap<>();
+        for (ContentChartData row : rows) {
+            grouped.computeIfAbsent(row.getChartId(), k -> new ArrayList<>()).add(row);
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,363 @@
+package com.moonlightbox.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moonlightbox.datasource.RoutingContext;
+import com.moonlightbox.dto.ChartRollupDTO;
+import com.moonlightbox.entity.ContentChart;
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.event.ChartDataAppendedEvent;
+import com.moonlightbox.mapper.ContentChartDataMapper;
+import com.moonlightbox.mapper.ContentChartMapper;
+import com.moonlightbox.rollup.ChartRollup;
+import com.moonlightbox.rollup.RollupRing;
+import com.moonlightbox.util.IdParseUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 图表时间分桶聚合（/api/chart/rollup）：每个图表一个 {@link ChartRollup}（count / sum / min / max，多种桶宽），
+ * 查询只读取聚合槽，不扫描明细。
+ * <p>
+ * 图表首次被查询时在主库的一个只读、可重复读事务内加载（{@link RoutingContext#onPrimary}，不记为客户端写入），不阻塞写入：默认流式扫描保留窗口（30 天）内的明细，
+ * mbox.rollup.persist=true 时改为读取 content_chart_rollup；同一快照内读取明细表的最大 id。加载期间提交的批次的
+ * {@link ChartDataAppendedEvent} 暂存在该图表的补放缓冲中，加载完成后补放并放入缓存，之后由事件增量维护；
+ * id 不大于快照最大 id 的点已包含在加载结果中，跳过（写入线程串行提交，id 随提交顺序递增）。
+ * 开启持久化时每次写入的增量在写入事务内累加到该表，与明细一同提交或回滚。只有经批量写入接口写入的点会增量反映，其他途径的修改在该图表的聚合
+ * 因 expire-after-access 淘汰、重新加载后生效。
+ */
+@Slf4j
+@Service
+public class ChartRollupService {
+
+    private static final Pattern DURATION = Pattern.compile("(\\d{1,4})([mhd])");
+    private static final String DEFAULT_PERIOD = "24h";
+    /**
+     * 单次查询的最大输出桶数
+     */
+    private static final int MAX_BUCKETS = 1000;
+
+    private static final String UPSERT_SQL = "INSERT INTO content_chart_rollup "
+            + "(chart_id, bucket_width, bucket_start, cnt, sum_value, min_value, max_value) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE cnt = cnt + VALUES(cnt), sum_value = sum_value + VALUES(sum_value), "
+            + "min_value = LEAST(min_value, VALUES(min_value)), max_value = GREATEST(max_value, VALUES(max_value))";
+    private static final String LOAD_SQL = "SELECT bucket_start, cnt, sum_value, min_value, max_value FROM content_chart_rollup "
+            + "WHERE chart_id = ? AND bucket_width = ? AND bucket_start >= ?";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM content_chart_data";
+
+    private final ContentChartMapper contentChartMapper;
+    private final ContentChartDataMapper contentChartDataMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTemplate;
+    private final boolean persist;
+    private final Cache<Long, ChartRollup> rollups;
+    /**
+     * 正在加载的图表，由自身保护；事件监听器与加载完成时的补放、放入缓存在同一把锁内进行
+     */
+    private final Map<Long, Load> loads = new HashMap<>();
+
+    /**
+     * 一次进行中的加载：同一图表的并发查询等待同一结果；replay 为加载期间提交的批次
+     */
+    private static final class Load {
+        final CompletableFuture<ChartRollup> result = new CompletableFuture<>();
+        final List<List<ContentChartData>> replay = new ArrayList<>();
+    }
+
+    public ChartRollupService(ContentChartMapper contentChartMapper,
+                              ContentChartDataMapper contentChartDataMapper,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${mbox.rollup.persist:false}") boolean persist,
+                              @Value("${mbox.rollup.max-charts:1000}") long maxCharts,
+                              @Value("${mbox.rollup.expire-after-access:1h}") Duration expireAfterAccess) {
+        this.contentChartMapper = contentChartMapper;
+        this.contentChartDataMapper = contentChartDataMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setReadOnly(true);
+        this.loadTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.persist = persist;
+        this.rollups = Caffeine.newBuilder()
+                .maximumSize(maxCharts)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * period / bucket 形如 30m、24h、7d（分钟 / 小时 / 天）。period 缺省时取图表的 period 字段（无法解析时为 24h），
+     * 此时不能指定 bucket；bucket 缺省时按 period 取 1 小时、6 小时或 1 天。
+     * 要求 period 为 bucket 的整数倍、输出不超过 {@value #MAX_BUCKETS} 个桶，且有能回答该组合的层级（见 {@link ChartRollup#LEVELS}）
+     */
+    public boolean isValidWindow(String period, String bucket) {
+        if (period == null)
+            return bucket == null;
+        long p = parseDuration(period);
+        if (p <= 0)
+            return false;
+        long b = bucket == null ? defaultBucket(p) : parseDuration(bucket);
+        return isSupported(p, b);
+    }
+
+    /**
+     * 截至当前时间的分桶聚合（含当前未结束的桶）；id 非法或图表不存在时返回 null。period / bucket 须已通过 {@link #isValidWindow}
+     */
+    public ChartRollupDTO rollup(String id, String period, String bucket) {
+        Long pk = IdParseUtil.parseId(id);
+        if (pk == null)
+            return null;
+        ChartRollup rollup = getOrLoad(pk);
+        if (rollup == null)
+            return null;
+        String periodText = period != null ? period.trim()
+                : isValidWindow(rollup.period(), null) ? rollup.period().trim() : DEFAULT_PERIOD;
+        long p = parseDuration(periodText);
+        long b = bucket == null ? defaultBucket(p) : parseDuration(bucket);
+        ChartRollup.Result result = rollup.query(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC), p, b);
+        return toDTO(pk, periodText, formatDuration(b), b, result);
+    }
+
+    /**
+     * 写入事务提交后在写入线程上调用：正在加载的图表暂存到补放缓冲，已加载的图表逐点累加，加载结果中已包含的点按 id 跳过
+     */
+    @TransactionalEventListener
+    public void onChartDataAppended(ChartDataAppendedEvent event) {
+        synchronized (loads) {
+            event.points().forEach((chartId, points) -> {
+                Load load = loads.get(chartId);
+                if (load != null) {
+                    load.replay.add(points);
+                    return;
+                }
+                ChartRollup rollup = rollups.getIfPresent(chartId);
+                if (rollup != null) {
+                    append(rollup, points);
+                }
+            });
+        }
+    }
+
+    /**
+     * 开启持久化时，在写入事务提交前把本批各桶的增量累加到聚合表；失败时整批回滚，由写入方按可重试异常重试
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void persistRollups(ChartDataAppendedEvent event) {
+        if (persist) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, deltas(event.points()));
+        }
+    }
+
+    private ChartRollup getOrLoad(long chartId) {
+        ChartRollup cached = rollups.getIfPresent(chartId);
+        if (cached != null) {
+            return cached;
+        }
+        Load load;
+        Load running;
+        synchronized (loads) {
+            cached = rollups.getIfPresent(chartId);
+            if (cached != null) {
+                return cached;
+            }
+            running = loads.get(chartId);
+            load = new Load();
+            if (running == null) {
+                // 先登记再读取：登记之后提交的批次都会进入补放缓冲，之前提交的已在读取的快照中
+                loads.put(chartId, load);
+            }
+        }
+        if (running != null) {
+            return running.result.join();
+        }
+        try {
+            ChartRollup loaded = load(chartId);
+            synchronized (loads) {
+                loads.remove(chartId);
+                if (loaded != null) {
+                    for (List<ContentChartData> points : load.replay) {
+                        append(loaded, points);
+                    }
+                    rollups.put(chartId, loaded);
+                }
+            }
+            load.result.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            synchronized (loads) {
+                loads.remove(chartId);
+            }
+            load.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 在一个快照内读取图表的聚合与明细表的最大 id；图表不存在时返回 null
+     */
+    private ChartRollup load(long chartId) {
+        // 在主库上读取：副本的快照可能缺少已提交但尚未复制的批次，而这些批次的事件已经送达
+        return RoutingContext.onPrimary(() -> loadTemplate.execute(status -> {
+            ContentChart chart = contentChartMapper.selectOne(new LambdaQueryWrapper<ContentChart>()
+                    .select(ContentChart::getId, ContentChart::getPeriod)
+                    .eq(ContentChart::getId, chartId));
+            if (chart == null) {
+                return null;
+            }
+            ChartRollup loaded = new ChartRollup(chart.getPeriod());
+            long start = System.nanoTime();
+            long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            if (persist) {
+                loadPersisted(chartId, loaded);
+            } else {
+                loadRaw(chartId, loaded);
+            }
+            loaded.advanceTo(maxId);
+            log.debug("Loaded rollups of chart {} in {} ms", chartId, (System.nanoTime() - start) / 1_000_000);
+            return loaded;
+        }));
+    }
+
+    private static void append(ChartRollup rollup, List<ContentChartData> points) {
+        for (ContentChartData p : points) {
+            rollup.addIfNewer(p.getId(), p.getTs().toEpochSecond(ZoneOffset.UTC), p.getYValue());
+        }
+    }
+
+    private void loadRaw(long chartId, ChartRollup rollup) {
+        long span = ChartRollup.LEVELS.stream().mapToLong(l -> (long) l.width() * l.capacity()).max().orElse(0);
+        contentChartDataMapper.streamSince(chartId, LocalDateTime.now().minusSeconds(span), ctx -> {
+            ContentChartData row = ctx.getResultObject();
+            rollup.add(row.getTs().toEpochSecond(ZoneOffset.UTC), row.getYValue());
+        });
+    }
+
+    private void loadPersisted(long chartId, ChartRollup rollup) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ChartRollup.Level level : ChartRollup.LEVELS) {
+            int width = level.width();
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> {
+                long bucket = rs.getObject(1, LocalDateTime.class).toEpochSecond(ZoneOffset.UTC) / width;
+                rollup.merge(width, bucket, rs.getLong(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5));
+            }, chartId, width, now.minusSeconds((long) width * level.capacity()));
+        }
+    }
+
+    /**
+     * 本批数据点按 (图表, 层级, 桶) 预聚合后的 upsert 参数
+     */
+    private static List<Object[]> deltas(Map<Long, List<ContentChartData>> points) {
+        List<Object[]> args = new ArrayList<>();
+        points.forEach((chartId, rows) -> {
+            for (ChartRollup.Level level : ChartRollup.LEVELS) {
+                int width = level.width();
+                // 值为 {count, sum, min, max}
+                Map<Long, double[]> buckets = new HashMap<>();
+                for (ContentChartData p : rows) {
+                    long bucket = Math.floorDiv(p.getTs().toEpochSecond(ZoneOffset.UTC), width);
+                    double y = p.getYValue();
+                    double[] agg = buckets.computeIfAbsent(bucket,
+                            k -> new double[]{0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+                    agg[0]++;
+                    agg[1] += y;
+                    agg[2] = Math.min(agg[2], y);
+                    agg[3] = Math.max(agg[3], y);
+                }
+                buckets.forEach((bucket, agg) -> args.add(new Object[]{chartId, width,
+                        LocalDateTime.ofEpochSecond(bucket * width, 0, ZoneOffset.UTC), (long) agg[0], agg[1], agg[2], agg[3]}));
+            }
+        });
+        return args;
+    }
+
+    private static ChartRollupDTO toDTO(long chartId, String period, String bucket, long width, ChartRollup.Result result) {
+        RollupRing.Aggregate agg = result.aggregate();
+        int n = agg.size();
+        long[] t = new long[n];
+        long[] count = new long[n];
+        double[] sum = new double[n];
+        Double[] min = new Double[n];
+        Double[] max = new Double[n];
+        Double[] avg = new Double[n];
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = 0; i < n; i++) {
+            t[i] = LocalDateTime.ofEpochSecond((result.start() + i) * width, 0, ZoneOffset.UTC)
+                    .atZone(zone).toInstant().toEpochMilli();
+            count[i] = agg.count(i);
+            sum[i] = agg.sum(i);
+            if (count[i] > 0) {
+                min[i] = agg.min(i);
+                max[i] = agg.max(i);
+                avg[i] = sum[i] / count[i];
+            }
+        }
+        ChartRollupDTO dto = new ChartRollupDTO();
+        dto.setChartId(Long.toString(chartId));
+        dto.setPeriod(period);
+        dto.setBucket(bucket);
+        dto.setT(t);
+        dto.setCount(count);
+        dto.setSum(sum);
+        dto.setMin(min);
+        dto.setMax(max);
+        dto.setAvg(avg);
+        return dto;
+    }
+
+    private static boolean isSupported(long period, long bucket) {
+        return bucket > 0 && bucket <= period && period % bucket == 0 && period / bucket <= MAX_BUCKETS
+                && ChartRollup.levelFor(period, bucket) >= 0;
+    }
+
+    private static long defaultBucket(long period) {
+        if (period <= Duration.ofDays(1).toSeconds()) {
+            return period % 3600 == 0 ? 3600 : 300;
+        }
+        return period <= Duration.ofDays(7).toSeconds() ? 6 * 3600 : 86400;
+    }
+
+    /**
+     * 解析为秒数，格式非法时返回 -1
+     */
+    private static long parseDuration(String text) {
+        if (text == null)
+            return -1;
+        Matcher m = DURATION.matcher(text.trim());
+        if (!m.matches())
+            return -1;
+        long n = Long.parseLong(m.group(1));
+        return switch (m.group(2)) {
+            case "m" -> n * 60;
+            case "h" -> n * 3600;
+            default -> n * 86400;
+        };
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds % 86400 == 0)
+            return seconds / 86400 + "d";
+        if (seconds % 3600 == 0)
+            return seconds / 3600 + "h";
+        return seconds / 60 + "m";
+    }
+}
@@ -0,0 +1,399 @@
+package com.moonlightbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.cache.DetailCache;
+import com.moonlightbox.dto.ChartDetailDTO;
+import com.moonlightbox.dto.ChartSeries;
+import com.moonlightbox.dto.ChartStreamFrameDTO;
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.event.ChartDataAppendedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图表实时推送（SSE）：每个图表一个主题，订阅者为非阻塞的 {@link SseEmitter}（Servlet 异步请求，不占用线程）。
+ * <p>
+ * 数据来源为 {@link ChartDataAppendedEvent}：监听器只把新数据点挂到有订阅者的主题上；单个调度线程每个
+ * coalesce-interval 把各主题积累的点合并为一帧，序列化一次后放入该图表每个订阅者的发件箱。
+ * 一帧超过 max-frame-points 个点时改为发送 reset 事件，由客户端重新拉取详情。
+ * 空闲连接每 heartbeat-interval 收到一条注释行，用于穿过代理的空闲超时并及时发现已断开的连接。
+ * <p>
+ * 调度线程不做网络写：每个订阅者的发件箱至多 outbox-frames 帧，由 sender-threads 个发送线程按订阅者逐个排空，
+ * 同一订阅者同时至多一个线程在发送。慢客户端的发件箱满时清空并改为一帧 reset；单次发送超过 send-timeout 的订阅者
+ * 移出主题不再投递，阻塞中的写返回（容器写超时）后关闭连接，其余订阅者由其他发送线程继续投递。
+ * 事件只在本节点发布，多节点部署时写入与订阅需落在同一节点（或由网关按图表 id 路由）。
+ */
+@Slf4j
+@Service
+public class ChartStreamService {
+
+    public static final String EVENT_OPEN = "open";
+    public static final String EVENT_POINTS = "points";
+    public static final String EVENT_RESET = "reset";
+
+    /**
+     * 客户端（EventSource）断线后的重连间隔
+     */
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private final ContentChartService contentChartService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final long heartbeatNanos;
+    private final int maxSubscribers;
+    private final int maxFramePoints;
+    private final int outboxFrames;
+    private final long sendTimeoutNanos;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    /**
+     * 有待发送数据点的主题，每个主题至多入队一次（见 {@link Topic#queued}）
+     */
+    private final Queue<Topic> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+
+    private final Counter framesSent;
+    private final Counter resetsSent;
+    private final Counter overflows;
+    private final Counter sendTimeouts;
+
+    /**
+     * 上次心跳时间，只由调度线程读写
+     */
+    private long lastHeartbeat = System.nanoTime();
+
+    /**
+     * 一个图表的订阅者与待发送的数据点
+     */
+    private static final class Topic {
+        final long chartId;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        /**
+         * 以下字段由 this 保护：事件中的分组列表按引用暂存，发送时才合并
+         */
+        List<List<ContentChartData>> pending = new ArrayList<>();
+        int pendingPoints;
+        boolean queued;
+        /**
+         * 最近一次发送（数据帧或心跳）的时间，空闲超过心跳间隔的主题才发心跳
+         */
+        volatile long lastSent = System.nanoTime();
+
+        Topic(long chartId) {
+            this.chartId = chartId;
+        }
+    }
+
+    /**
+     * 一个订阅连接与它的发件箱：调度线程只入队，发送线程排空
+     */
+    private final class Subscriber implements Runnable {
+        final long chartId;
+        final SseEmitter emitter;
+        /**
+         * 以下两个字段由 this 保护；scheduled 为 true 时已有发送线程负责排空
+         */
+        private final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> outbox = new ArrayDeque<>();
+        private boolean scheduled;
+        /**
+         * 正在进行的发送开始的时间，0 表示空闲
+         */
+        volatile long sendingSince;
+        /**
+         * 已因发送超时移出主题，当前发送返回后关闭连接
+         */
+        volatile boolean evicted;
+
+        Subscriber(long chartId, SseEmitter emitter) {
+            this.chartId = chartId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * 入队一帧：发件箱已满时清空并改为 reset；心跳只在发件箱空闲时入队（有数据在途时无需心跳）
+         */
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame, boolean heartbeat) {
+            synchronized (this) {
+                if (heartbeat && (scheduled || !outbox.isEmpty())) {
+                    return;
+                }
+                if (outbox.size() >= outboxFrames) {
+                    outbox.clear();
+                    overflows.increment();
+                    frame = resetFrame();
+                }
+                outbox.add(frame);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                senders.execute(this);
+            } catch (RejectedExecutionException e) {
+                // 正在关闭
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                synchronized (this) {
+                    frame = outbox.poll();
+                    if (frame == null || evicted) {
+                        outbox.clear();
+                        scheduled = false;
+                        break;
+                    }
+                }
+                sendingSince = System.nanoTime();
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        outbox.clear();
+                        scheduled = false;
+                    }
+                    emitter.completeWithError(e);
+                    unsubscribe(this);
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            if (evicted) {
+                emitter.complete();
+            }
+        }
+    }
+
+    public ChartStreamService(ContentChartService contentChartService,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${mbox.stream.coalesce-interval:1s}") Duration coalesceInterval,
+                              @Value("${mbox.stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+                              @Value("${mbox.stream.timeout:30m}") Duration timeout,
+                              @Value("${mbox.stream.max-subscribers:20000}") int maxSubscribers,
+                              @Value("${mbox.stream.max-frame-points:5000}") int maxFramePoints,
+                              @Value("${mbox.stream.outbox-frames:8}") int outboxFrames,
+                              @Value("${mbox.stream.sender-threads:4}") int senderThreads,
+                              @Value("${mbox.stream.send-timeout:10s}") Duration sendTimeout) {
+        this.contentChartService = contentChartService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.maxSubscribers = maxSubscribers;
+        this.maxFramePoints = maxFramePoints;
+        this.outboxFrames = Math.max(1, outboxFrames);
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+
+        meterRegistry.gauge("mbox.stream.subscribers", subscribers);
+        meterRegistry.gauge("mbox.stream.topics", topics, Map::size);
+        this.framesSent = meterRegistry.counter("mbox.stream.frames", "event", EVENT_POINTS);
+        this.resetsSent = meterRegistry.counter("mbox.stream.frames", "event", EVENT_RESET);
+        this.overflows = meterRegistry.counter("mbox.stream.outbox.overflows");
+        this.sendTimeouts = meterRegistry.counter("mbox.stream.send.timeouts");
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chart-stream");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), r -> {
+            Thread t = new Thread(r, "chart-stream-send-" + senderCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = coalesceInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        topics.values().forEach(t -> t.subscribers.forEach(s -> s.emitter.complete()));
+        topics.clear();
+    }
+
+    /**
+     * 订阅者是否已达上限（max-subscribers）
+     */
+    public boolean isFull() {
+        return subscribers.get() >= maxSubscribers;
+    }
+
+    /**
+     * 订阅一个图表：id 非法或图表不存在时返回 null。首个事件为 open（data 为当前详情的 ETag，
+     * 客户端可与已拉取的详情比对，不一致时重新拉取），之后每个合并周期至多一个 points 事件
+     */
+    public SseEmitter subscribe(String id) {
+        DetailCache.Entry<ChartDetailDTO> detail = contentChartService.getDetailEntry(id);
+        if (detail == null)
+            return null;
+        long chartId = Long.parseLong(detail.value().getId());
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(chartId, emitter);
+        // open 先入发件箱，保证排在任何数据帧之前
+        subscriber.offer(SseEmitter.event().name(EVENT_OPEN).reconnectTime(RECONNECT_MILLIS).data(detail.etag()).build(), false);
+        topics.compute(chartId, (k, t) -> {
+            Topic topic = t == null ? new Topic(chartId) : t;
+            topic.subscribers.add(subscriber);
+            return topic;
+        });
+        subscribers.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        topics.computeIfPresent(subscriber.chartId, (k, t) -> {
+            if (t.subscribers.remove(subscriber)) {
+                subscribers.decrementAndGet();
+            }
+            return t.subscribers.isEmpty() ? null : t;
+        });
+    }
+
+    /**
+     * 写入事务提交后在写入线程上调用：没有订阅者的图表直接跳过，其余只暂存引用，不做序列化与网络写
+     */
+    @TransactionalEventListener
+    public void onChartDataAppended(ChartDataAppendedEvent event) {
+        event.points().forEach((chartId, points) -> {
+            Topic topic = topics.get(chartId);
+            if (topic == null) {
+                return;
+            }
+            synchronized (topic) {
+                topic.pending.add(points);
+                topic.pendingPoints += points.size();
+                if (topic.queued) {
+                    return;
+                }
+                topic.queued = true;
+            }
+            dirty.offer(topic);
+        });
+    }
+
+    private void tick() {
+        try {
+            Topic topic;
+            while ((topic = dirty.poll()) != null) {
+                List<List<ContentChartData>> pending;
+                int n;
+                synchronized (topic) {
+                    pending = topic.pending;
+                    n = topic.pendingPoints;
+                    topic.pending = new ArrayList<>();
+                    topic.pendingPoints = 0;
+                    topic.queued = false;
+                }
+                if (!topic.subscribers.isEmpty()) {
+                    broadcast(topic, n > maxFramePoints ? resetFrame() : pointsFrame(topic.chartId, pending, n));
+                }
+            }
+            long now = System.nanoTime();
+            Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = null;
+            if (now - lastHeartbeat >= heartbeatNanos) {
+                lastHeartbeat = now;
+                heartbeat = SseEmitter.event().comment("").build();
+            }
+            for (Topic t : topics.values()) {
+                evictStalled(t, now);
+                if (heartbeat != null && now - t.lastSent >= heartbeatNanos) {
+                    t.lastSent = now;
+                    for (Subscriber s : t.subscribers) {
+                        s.offer(heartbeat, true);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Chart stream tick failed", e);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> pointsFrame(long chartId, List<List<ContentChartData>> pending, int n) {
+        String[] labels = new String[n];
+        double[] values = new double[n];
+        int i = 0;
+        for (List<ContentChartData> points : pending) {
+            for (ContentChartData p : points) {
+                labels[i] = p.getXLabel();
+                values[i] = p.getYValue() == null ? Double.NaN : p.getYValue();
+                i++;
+            }
+        }
+        ChartStreamFrameDTO frame = new ChartStreamFrameDTO();
+        frame.setChartId(Long.toString(chartId));
+        frame.setChartData(new ChartSeries(labels, values));
+        framesSent.increment();
+        try {
+            return SseEmitter.event().name(EVENT_POINTS).data(objectMapper.writeValueAsString(frame), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> resetFrame() {
+        resetsSent.increment();
+        return SseEmitter.event().name(EVENT_RESET).data("").build();
+    }
+
+    /**
+     * 同一帧（已构建的 SSE 文本）放入主题全部订阅者的发件箱，不在调用线程上做网络写
+     */
+    private void broadcast(Topic topic, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        topic.lastSent = System.nanoTime();
+        topic.subscribers.forEach(s -> s.offer(frame, false));
+    }
+
+    /**
+     * 单次发送超过 send-timeout 的订阅者移出主题。发送中的 emitter 持有自身的锁，这里不能调用 complete，
+     * 由发送线程在写返回后关闭
+     */
+    private void evictStalled(Topic topic, long now) {
+        for (Subscriber s : topic.subscribers) {
+            long since = s.sendingSince;
+            if (since != 0 && now - since >= sendTimeoutNanos && !s.evicted) {
+                s.evicted = true;
+                sendTimeouts.increment();
+                unsubscribe(s);
+            }
+        }
+    }
+}
@@ -2,49 +2,198 @@ package com.moonlightbox.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.moonlightbox.cache.DetailCache;
+import com.moonlightbox.cache.TableCountCache;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.common.ListVersion;
+import com.moonlightbox.datasource.ReadOnlyRoute;
 import com.moonlightbox.dto.CardDetailDTO;
 import com.moonlightbox.dto.CardListItemDTO;
 import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.dto.SyncResult;
 import com.moonlightbox.entity.ContentCard;
 import com.moonlightbox.mapper.ContentCardMapper;
+import com.moonlightbox.util.CursorUtil;
 import com.moonlightbox.util.IdParseUtil;
+import com.moonlightbox.util.WatermarkUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
+@ReadOnlyRoute
 @RequiredArgsConstructor
 public class ContentCardService {
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final String TABLE = "content_card";
+    private static final int MAX_BATCH_SIZE = 100;
 
     private final ContentCardMapper contentCardMapper;
+    private final TableCountCache tableCountCache;
+    private final DetailCache<CardDetailDTO> cardDetailCache;
+    private final SyncSupport syncSupport;
 
-    public PageResult<CardListItemDTO> list(int page, int size) {
+    /**
+     * offset 分页。分页查询本身不执行 COUNT，total 取自 {@link TableCountCache}（允许一定陈旧），exactTotal 为 true 时强制精确计数
+     */
+    public PageResult<CardListItemDTO> list(int page, int size, boolean exactTotal) {
         int p = Math.max(1, page);
         int s = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, 100);
-        Page<ContentCard> pageReq = new Page<>(p, s);
-        Page<ContentCard> result = contentCardMapper.selectPage(pageReq,
-                new LambdaQueryWrapper<ContentCard>().orderByDesc(ContentCard::getCreatedAt));
+        Page<ContentCard> pageReq = new Page<>(p, s, false);
+        Page<ContentCard> result = contentCardMapper.selectPage(pageReq, listQuery());
         List<CardListItemDTO> list = result.getRecords().stream().map(this::toListItem).collect(Collectors.toList());
-        return new PageResult<>(list, result.getTotal(), (int) result.getCurrent(), (int) result.getSize());
+        long total = tableCountCache.get(TABLE, () -> contentCardMapper.selectCount(null), exactTotal);
+        return new PageResult<>(list, total, (int) result.getCurrent(), (int) result.getSize());
+    }
+
+    /**
+     * 列表版本探测：只查询本页的 id 与 updated_at，据此生成 ETag，未变化时无需执行完整列表查询。
+     * updated_at 随行的原地修改刷新（ON UPDATE），修改过的页不会命中旧 ETag 与按 ETag 缓存的预压缩响应体
+     */
+    public ListVersion listVersion(int page, int size, boolean exactTotal) {
+        int p = Math.max(1, page);
+        int s = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, 100);
+        List<ContentCard> rows = contentCardMapper.selectPage(new Page<>(p, s, false),
+                new LambdaQueryWrapper<ContentCard>()
+                        .select(ContentCard::getId, ContentCard::getUpdatedAt)
+                        .orderByDesc(ContentCard::getCreatedAt, ContentCard::getId)).getRecords();
+        long total = tableCountCache.get(TABLE, () -> contentCardMapper.selectCount(null), exactTotal);
+        return ListVersion.of(TABLE, p, s, total, rows, ContentCard::getId, ContentCard::getUpdatedAt);
+    }
+
+    /**
+     * 游标分页：按 (created_at, id) 倒序 seek，不执行 COUNT。cursor 为空串表示第一页；cursor 非法时返回 null
+     */
+    public PageResult<CardListItemDTO> listByCursor(String cursor, int size) {
+        int s = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, 100);
+        LambdaQueryWrapper<ContentCard> query = listQuery();
+        if (!cursor.isBlank()) {
+            CursorUtil.Position after = CursorUtil.decode(cursor);
+            if (after == null)
+                return null;
+            query.and(w -> w.lt(ContentCard::getCreatedAt, after.createdAt())
+                    .or(o -> o.eq(ContentCard::getCreatedAt, after.createdAt()).lt(ContentCard::getId, after.id())));
+        }
+        // 多取一行用于判断是否还有下一页
+        List<ContentCard> rows = contentCardMapper.selectPage(new Page<>(1, s + 1, false), query).getRecords();
+        String nextCursor = null;
+        if (rows.size() > s) {
+            rows = rows.subList(0, s);
+            ContentCard last = rows.get(s - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+        List<CardListItemDTO> list = rows.stream().map(this::toListItem).collect(Collectors.toList());
+        return PageResult.ofCursor(list, s, nextCursor);
+    }
+
+    /**
+     * 按 id 批量读取列表项（列表投影，一次 IN 查询），不存在的 id 不出现在结果中
+     */
+    public Map<Long, CardListItemDTO> getListItems(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return Map.of();
+        Map<Long, CardListItemDTO> result = new HashMap<>();
+        for (ContentCard e : contentCardMapper.selectList(listQuery().in(ContentCard::getId, ids))) {
+            result.put(e.getId(), toListItem(e));
+        }
+        return result;
+    }
+
+    /**
+     * 列表查询只取列表字段（及游标所需的 created_at），不读取 content（TEXT）、media_url 等详情列
+     */
+    static LambdaQueryWrapper<ContentCard> listQuery() {
+        return new LambdaQueryWrapper<ContentCard>()
+                .select(ContentCard::getId, ContentCard::getTitle, ContentCard::getSubtitle, ContentCard::getImageUrl, ContentCard::getBadge,
+                        ContentCard::getCreatedAt)
+                .orderByDesc(ContentCard::getCreatedAt, ContentCard::getId);
     }
 
     public CardDetailDTO getDetail(String id) {
         Long pk = IdParseUtil.parseId(id);
         if (pk == null)
             return null;
+        return cardDetailCache.get(pk, this::loadDetail);
+    }
+
+    /**
+     * 带 ETag 的详情；id 非法或不存在时返回 null
+     */
+    public DetailCache.Entry<CardDetailDTO> getDetailEntry(String id) {
+        Long pk = IdParseUtil.parseId(id);
+        if (pk == null)
+            return null;
+        return cardDetailCache.getEntry(pk, this::loadDetail);
+    }
+
+    /**
+     * 批量详情（ids 如 "1,2,3"）：先查详情缓存，未命中的 id 以一次 selectBatchIds 加载；
+     * 结果按请求顺序排列并列出不存在的 id。ids 非法或超过 {@value #MAX_BATCH_SIZE} 个时返回 null
+     */
+    public DetailCache.Batch<CardDetailDTO> getDetails(String ids) {
+        long[] pks = IdParseUtil.parseIds(ids, MAX_BATCH_SIZE);
+        if (pks == null)
+            return null;
+        return cardDetailCache.getAll(pks, this::loadDetails);
+    }
+
+    /**
+     * 增量同步：返回修改时间在水位 since 之后的详情（按 (updated_at, id) 升序 seek）与之后删除的 id。
+     * since 为空串表示从头同步（不含此前的删除）；since 非法时返回 null
+     */
+    public SyncResult<CardDetailDTO> sync(String since, int size) {
+        WatermarkUtil.Watermark from = WatermarkUtil.decode(since);
+        if (from == null)
+            return null;
+        int s = SyncSupport.clampSize(size);
+        LocalDateTime ceiling = syncSupport.ceiling();
+        LambdaQueryWrapper<ContentCard> query = new LambdaQueryWrapper<ContentCard>()
+                .le(ContentCard::getUpdatedAt, ceiling)
+                .orderByAsc(ContentCard::getUpdatedAt, ContentCard::getId);
+        if (from.updatedAt() != null) {
+            query.and(w -> w.gt(ContentCard::getUpdatedAt, from.updatedAt())
+                    .or(o -> o.eq(ContentCard::getUpdatedAt, from.updatedAt()).gt(ContentCard::getId, from.id())));
+        }
+        // 多取一行用于判断是否还有下一页
+        List<ContentCard> rows = contentCardMapper.selectPage(new Page<>(1, s + 1, false), query).getRecords();
+        return syncSupport.assemble(ContentType.CARD, from, ceiling, s, rows, ContentCard::getUpdatedAt, ContentCard::getId,
+                page -> page.stream().map(this::toDetailItem).collect(Collectors.toList()));
+    }
+
+    /**
+     * 全表导出：按主键顺序流式读取，逐行转为详情 DTO 交给 sink，内存占用与表大小无关
+     */
+    public void exportAll(Consumer<CardDetailDTO> sink) {
+        contentCardMapper.streamAll(ctx -> sink.accept(toDetailItem(ctx.getResultObject())));
+    }
+
+    private CardDetailDTO loadDetail(Long pk) {
         ContentCard one = contentCardMapper.selectById(pk);
         if (one == null)
             return null;
         return toDetailItem(one);
     }
 
-    private CardListItemDTO toListItem(ContentCard e) {
+    private Map<Long, CardDetailDTO> loadDetails(Set<? extends Long> pks) {
+        Map<Long, CardDetailDTO> result = new HashMap<>();
+        for (ContentCard e : contentCardMapper.selectBatchIds(pks)) {
+            result.put(e.getId(), toDetailItem(e));
+        }
+        return result;
+    }
+
+    CardListItemDTO toListItem(ContentCard e) {
         CardListItemDTO dto = new CardListItemDTO();
-        dto.setId(String.valueOf(e.getId()));
+        dto.setId(IdParseUtil.toIdString(e.getId()));
         dto.setTitle(e.getTitle());
         dto.setSubtitle(e.getSubtitle());
         dto.setImageUrl(e.getImageUrl());
@@ -52,9 +201,9 @@ public class ContentCardService {
         return dto;
     }
 
-    private CardDetailDTO toDetailItem(ContentCard e) {
+    CardDetailDTO toDetailItem(ContentCard e) {
         CardDetailDTO dto = new CardDetailDTO();
-        dto.setId(String.valueOf(e.getId()));
+        dto.setId(IdParseUtil.toIdString(e.getId()));
         dto.setTitle(e.getTitle());
         dto.setSubtitle(e.getSubtitle());
         dto.setImageUrl(e.getImageUrl());
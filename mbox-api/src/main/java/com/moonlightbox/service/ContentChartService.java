@@ -2,95 +2,391 @@ package com.moonlightbox.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.moonlightbox.cache.ChartSampleCache;
+import com.moonlightbox.cache.DetailCache;
+import com.moonlightbox.cache.TableCountCache;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.common.ListVersion;
+import com.moonlightbox.datasource.ReadOnlyRoute;
 import com.moonlightbox.dto.ChartDetailDTO;
 import com.moonlightbox.dto.ChartListItemDTO;
+import com.moonlightbox.dto.ChartSeries;
 import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.dto.SyncResult;
 import com.moonlightbox.entity.ContentChart;
 import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.event.ChartDataAppendedEvent;
 import com.moonlightbox.mapper.ContentChartDataMapper;
 import com.moonlightbox.mapper.ContentChartMapper;
+import com.moonlightbox.util.CursorUtil;
+import com.moonlightbox.util.DownsampleUtil;
 import com.moonlightbox.util.IdParseUtil;
+import com.moonlightbox.util.WatermarkUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
+@ReadOnlyRoute
 @RequiredArgsConstructor
 public class ContentChartService {
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final String TABLE = "content_chart";
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final String CHART_TYPE_LINE = "line";
+    private static final String CHART_TYPE_BAR = "bar";
+    private static final String CHART_TYPE_PIE = "pie";
 
     private final ContentChartMapper contentChartMapper;
     private final ContentChartDataMapper contentChartDataMapper;
+    private final TableCountCache tableCountCache;
+    private final DetailCache<ChartDetailDTO> chartDetailCache;
+    private final ChartSampleCache chartSampleCache;
+    private final SyncSupport syncSupport;
 
-    public PageResult<ChartListItemDTO> list(int page, int size) {
+    /**
+     * offset 分页。分页查询本身不执行 COUNT，total 取自 {@link TableCountCache}（允许一定陈旧），exactTotal 为 true 时强制精确计数
+     */
+    public PageResult<ChartListItemDTO> list(int page, int size, boolean exactTotal) {
         int p = Math.max(1, page);
         int s = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, 100);
-        Page<ContentChart> pageReq = new Page<>(p, s);
+        Page<ContentChart> pageReq = new Page<>(p, s, false);
         Page<ContentChart> result = contentChartMapper.selectPage(pageReq,
-                new LambdaQueryWrapper<ContentChart>().orderByDesc(ContentChart::getCreatedAt));
-        List<ChartListItemDTO> list = result.getRecords().stream().map(this::toListItem).collect(Collectors.toList());
-        return new PageResult<>(list, result.getTotal(), (int) result.getCurrent(), (int) result.getSize());
+                new LambdaQueryWrapper<ContentChart>().orderByDesc(ContentChart::getCreatedAt, ContentChart::getId));
+        List<ChartListItemDTO> list = toListItems(result.getRecords());
+        long total = tableCountCache.get(TABLE, () -> contentChartMapper.selectCount(null), exactTotal);
+        return new PageResult<>(list, total, (int) result.getCurrent(), (int) result.getSize());
+    }
+
+    /**
+     * 列表版本探测：只查询本页的 id 与 updated_at，据此生成 ETag，未变化时无需执行完整列表查询。
+     * 列表含 chartData，数据点变化会刷新 data_updated_at 并随之刷新 updated_at，因此版本以 updated_at 计算
+     */
+    public ListVersion listVersion(int page, int size, boolean exactTotal) {
+        int p = Math.max(1, page);
+        int s = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, 100);
+        List<ContentChart> rows = contentChartMapper.selectPage(new Page<>(p, s, false),
+                new LambdaQueryWrapper<ContentChart>()
+                        .select(ContentChart::getId, ContentChart::getUpdatedAt)
+                        .orderByDesc(ContentChart::getCreatedAt, ContentChart::getId)).getRecords();
+        long total = tableCountCache.get(TABLE, () -> contentChartMapper.selectCount(null), exactTotal);
+        return ListVersion.of(TABLE, p, s, total, rows, ContentChart::getId, ContentChart::getUpdatedAt);
+    }
+
+    /**
+     * 游标分页：按 (created_at, id) 倒序 seek，不执行 COUNT。cursor 为空串表示第一页；cursor 非法时返回 null
+     */
+    public PageResult<ChartListItemDTO> listByCursor(String cursor, int size) {
+        int s = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, 100);
+        LambdaQueryWrapper<ContentChart> query = new LambdaQueryWrapper<ContentChart>()
+                .orderByDesc(ContentChart::getCreatedAt, ContentChart::getId);
+        if (!cursor.isBlank()) {
+            CursorUtil.Position after = CursorUtil.decode(cursor);
+            if (after == null)
+                return null;
+            query.and(w -> w.lt(ContentChart::getCreatedAt, after.createdAt())
+                    .or(o -> o.eq(ContentChart::getCreatedAt, after.createdAt()).lt(ContentChart::getId, after.id())));
+        }
+        // 多取一行用于判断是否还有下一页
+        List<ContentChart> rows = contentChartMapper.selectPage(new Page<>(1, s + 1, false), query).getRecords();
+        String nextCursor = null;
+        if (rows.size() > s) {
+            rows = rows.subList(0, s);
+            ContentChart last = rows.get(s - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+        return PageResult.ofCursor(toListItems(rows), s, nextCursor);
     }
 
     public ChartDetailDTO getDetail(String id) {
         Long pk = IdParseUtil.parseId(id);
         if (pk == null)
             return null;
+        return chartDetailCache.get(pk, this::loadDetail);
+    }
+
+    /**
+     * 带 ETag 的详情；id 非法或不存在时返回 null
+     */
+    public DetailCache.Entry<ChartDetailDTO> getDetailEntry(String id) {
+        Long pk = IdParseUtil.parseId(id);
+        if (pk == null)
+            return null;
+        return chartDetailCache.getEntry(pk, this::loadDetail);
+    }
+
+    /**
+     * 批量详情（ids 如 "1,2,3"）：先查详情缓存，未命中的 id 以一次 selectBatchIds 加上一次子表 IN 查询加载；
+     * 结果按请求顺序排列并列出不存在的 id。ids 非法或超过 {@value #MAX_BATCH_SIZE} 个时返回 null
+     */
+    public DetailCache.Batch<ChartDetailDTO> getDetails(String ids) {
+        long[] pks = IdParseUtil.parseIds(ids, MAX_BATCH_SIZE);
+        if (pks == null)
+            return null;
+        return chartDetailCache.getAll(pks, this::loadDetails);
+    }
+
+    /**
+     * 同 {@link #getDetailEntry(String)}，maxPoints 不为空时返回降采样后的详情（按 (id, maxPoints) 缓存，ETag 由原详情派生）；
+     * maxPoints 须不小于 {@link DownsampleUtil#MIN_POINTS}，由调用方校验
+     */
+    public DetailCache.Entry<ChartDetailDTO> getDetailEntry(String id, Integer maxPoints) {
+        if (maxPoints == null)
+            return getDetailEntry(id);
+        Long pk = IdParseUtil.parseId(id);
+        if (pk == null)
+            return null;
+        DetailCache.Entry<ChartDetailDTO> entry = chartDetailCache.getEntry(pk, this::loadDetail);
+        if (entry == null)
+            return null;
+        return chartSampleCache.get(pk, maxPoints, entry, dto -> downsample(dto, maxPoints));
+    }
+
+    /**
+     * 增量同步：返回修改时间在水位 since 之后的详情（按 (updated_at, id) 升序 seek）与之后删除的 id；
+     * 只有数据点在水位之后变化过的图表带 chartData，其余 chartData 为 null（序列未变化）。
+     * since 为空串表示从头同步（不含此前的删除）；since 非法时返回 null
+     */
+    public SyncResult<ChartDetailDTO> sync(String since, int size) {
+        WatermarkUtil.Watermark from = WatermarkUtil.decode(since);
+        if (from == null)
+            return null;
+        int s = SyncSupport.clampSize(size);
+        LocalDateTime ceiling = syncSupport.ceiling();
+        LambdaQueryWrapper<ContentChart> query = new LambdaQueryWrapper<ContentChart>()
+                .le(ContentChart::getUpdatedAt, ceiling)
+                .orderByAsc(ContentChart::getUpdatedAt, ContentChart::getId);
+        if (from.updatedAt() != null) {
+            query.and(w -> w.gt(ContentChart::getUpdatedAt, from.updatedAt())
+                    .or(o -> o.eq(ContentChart::getUpdatedAt, from.updatedAt()).gt(ContentChart::getId, from.id())));
+        }
+        // 多取一行用于判断是否还有下一页
+        List<ContentChart> rows = contentChartMapper.selectPage(new Page<>(1, s + 1, false), query).getRecords();
+        return syncSupport.assemble(ContentType.CHART, from, ceiling, s, rows, ContentChart::getUpdatedAt, ContentChart::getId,
+                page -> toSyncItems(page, from.updatedAt()));
+    }
+
+    /**
+     * 写入新数据点（提交后）失效相应图表的详情缓存（降采样结果按详情 ETag 缓存，随之失效）
+     */
+    @TransactionalEventListener
+    public void onChartDataAppended(ChartDataAppendedEvent event) {
+        event.points().keySet().forEach(chartDetailCache::invalidate);
+    }
+
+    /**
+     * 全表导出：主表按主键顺序流式读取，每 {@value #EXPORT_CHUNK_SIZE} 行以一次 IN 查询补齐子表数据后逐条交给 sink，
+     * 内存占用只与块大小有关。子表查询使用另一个连接，因此不能在事务中调用（事务内流式结果集会独占连接）
+     */
+    public void exportAll(Consumer<ChartDetailDTO> sink) {
+        List<ContentChart> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        contentChartMapper.streamAll(ctx -> {
+            chunk.add(ctx.getResultObject());
+            if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                exportChunk(chunk, sink);
+                chunk.clear();
+            }
+        });
+        exportChunk(chunk, sink);
+    }
+
+    private void exportChunk(List<ContentChart> charts, Consumer<ChartDetailDTO> sink) {
+        Map<Long, List<ContentChartData>> dataByChart = loadChartData(
+                charts.stream().map(ContentChart::getId).collect(Collectors.toList()));
+        for (ContentChart e : charts) {
+            sink.accept(toDetailItem(e, dataByChart.getOrDefault(e.getId(), Collections.emptyList())));
+        }
+    }
+
+    /**
+     * 组装完整详情（含 chartData），整体进入详情缓存
+     */
+    private ChartDetailDTO loadDetail(Long pk) {
         ContentChart one = contentChartMapper.selectById(pk);
         if (one == null)
             return null;
-        return toDetailItem(one);
+        return toDetailItem(one, loadChartData(Collections.singletonList(pk))
+                .getOrDefault(pk, Collections.emptyList()));
+    }
+
+    private Map<Long, ChartDetailDTO> loadDetails(Set<? extends Long> pks) {
+        List<ContentChart> rows = contentChartMapper.selectBatchIds(pks);
+        Map<Long, List<ContentChartData>> dataByChart = loadChartData(
+                rows.stream().map(ContentChart::getId).collect(Collectors.toList()));
+        Map<Long, ChartDetailDTO> result = new HashMap<>();
+        for (ContentChart e : rows) {
+            result.put(e.getId(), toDetailItem(e, dataByChart.getOrDefault(e.getId(), Collections.emptyList())));
+        }
+        return result;
+    }
+
+    /**
+     * 同步结果：只为数据点修改时间晚于 since 的图表（since 为 null 时为全部）加载 chartData，其余 chartData 置为 null
+     */
+    private List<ChartDetailDTO> toSyncItems(List<ContentChart> charts, LocalDateTime since) {
+        Set<Long> dataChanged = charts.stream()
+                .filter(e -> since == null || e.getDataUpdatedAt() == null || e.getDataUpdatedAt().isAfter(since))
+                .map(ContentChart::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ContentChartData>> dataByChart = loadChartData(dataChanged);
+        List<ChartDetailDTO> result = new ArrayList<>(charts.size());
+        for (ContentChart e : charts) {
+            ChartDetailDTO dto = toDetailItem(e, dataByChart.getOrDefault(e.getId(), Collections.emptyList()));
+            if (!dataChanged.contains(e.getId())) {
+                dto.setChartData(null);
+            }
+            result.add(dto);
+        }
+        return result;
     }
 
-    private ChartListItemDTO toListItem(ContentChart e) {
+    private List<ChartListItemDTO> toListItems(List<ContentChart> charts) {
+        Map<Long, List<ContentChartData>> dataByChart = loadChartData(
+                charts.stream().map(ContentChart::getId).collect(Collectors.toList()));
+        return charts.stream()
+                .map(e -> toListItem(e, dataByChart.getOrDefault(e.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 批量加载子表数据：一次 IN 查询取回这些图表的全部数据点，按 chartId 分组（组内按 sortOrder 升序）
+     */
+    private Map<Long, List<ContentChartData>> loadChartData(Collection<Long> chartIds) {
+        if (chartIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<ContentChartData> rows = contentChartDataMapper.selectList(
+                new LambdaQueryWrapper<ContentChartData>()
+                        .in(ContentChartData::getChartId, chartIds)
+                        .orderByAsc(ContentChartData::getChartId, ContentChartData::getSortOrder));
+        Map<Long, List<ContentChartData>> grouped = new HashMap<>();
+        for (ContentChartData row : rows) {
+            grouped.computeIfAbsent(row.getChartId(), k -> new ArrayList<>()).add(row);
+        }
+        return grouped;
+    }
+
+    ChartListItemDTO toListItem(ContentChart e, List<ContentChartData> dataList) {
         ChartListItemDTO dto = new ChartListItemDTO();
-        dto.setId(String.valueOf(e.getId()));
+        dto.setId(IdParseUtil.toIdString(e.getId()));
         dto.setTitle(e.getTitle());
         dto.setSubtitle(e.getSubtitle());
         dto.setChartType(e.getChartType());
         dto.setPeriod(e.getPeriod());
         dto.setUnit(e.getUnit());
-
-        // 查询子表数据
-        List<ContentChartData> dataList = contentChartDataMapper.selectList(
-                new LambdaQueryWrapper<ContentChartData>()
-                        .eq(ContentChartData::getChartId, e.getId())
-                        .orderByAsc(ContentChartData::getSortOrder));
-
-        dto.setChartData(dataList.stream().map(d -> {
-            Map<String, Object> map = new java.util.HashMap<>();
-            map.put("x", d.getXLabel());
-            map.put("y", d.getYValue());
-            return map;
-        }).collect(Collectors.toList()));
-
+        dto.setChartData(toSeries(dataList));
         return dto;
     }
 
-    private ChartDetailDTO toDetailItem(ContentChart e) {
+    ChartDetailDTO toDetailItem(ContentChart e, List<ContentChartData> dataList) {
         ChartDetailDTO dto = new ChartDetailDTO();
-        dto.setId(String.valueOf(e.getId()));
+        dto.setId(IdParseUtil.toIdString(e.getId()));
         dto.setTitle(e.getTitle());
         dto.setSubtitle(e.getSubtitle());
         dto.setChartType(e.getChartType());
         dto.setPeriod(e.getPeriod());
         dto.setUnit(e.getUnit());
+        dto.setChartData(toSeries(dataList));
+        return dto;
+    }
 
-        List<ContentChartData> dataList = contentChartDataMapper.selectList(
-                new LambdaQueryWrapper<ContentChartData>()
-                        .eq(ContentChartData::getChartId, e.getId())
-                        .orderByAsc(ContentChartData::getSortOrder));
-        dto.setChartData(dataList.stream().map(d -> {
-            Map<String, Object> map = new java.util.HashMap<>();
-            map.put("x", d.getXLabel());
-            map.put("y", d.getYValue());
-            return map;
-        }).collect(Collectors.toList()));
+    /**
+     * 子表数据转为列式序列（数据已按 sortOrder 排序）
+     */
+    private ChartSeries toSeries(List<ContentChartData> dataList) {
+        int n = dataList.size();
+        if (n == 0) {
+            return ChartSeries.EMPTY;
+        }
+        String[] labels = new String[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            ContentChartData d = dataList.get(i);
+            labels[i] = d.getXLabel();
+            values[i] = d.getYValue() == null ? Double.NaN : d.getYValue();
+        }
+        return new ChartSeries(labels, values);
+    }
+
+    /**
+     * 按图表类型选择降采样方式：折线图使用 LTTB 保留形状与极值；柱状图分桶取均值，柱高与原值量级一致；
+     * 饼图分桶求和（合并相邻扇区），总量不变；其余类型不降采样
+     */
+    private static ChartSeries downsample(String chartType, ChartSeries series, int maxPoints) {
+        if (series == null || chartType == null) {
+            return series;
+        }
+        return switch (chartType) {
+            case CHART_TYPE_LINE -> series.lttb(maxPoints);
+            case CHART_TYPE_BAR -> series.bucket(maxPoints, DownsampleUtil.Aggregation.MEAN);
+            case CHART_TYPE_PIE -> series.bucket(maxPoints, DownsampleUtil.Aggregation.SUM);
+            default -> series;
+        };
+    }
 
+    private static ChartDetailDTO downsample(ChartDetailDTO src, int maxPoints) {
+        ChartSeries series = downsample(src.getChartType(), src.getChartData(), maxPoints);
+        return series == src.getChartData() ? src : withSeries(src, series);
+    }
+
+    /**
+     * 返回 chartData 为紧凑格式（{"x":[...],"y":[...]}）的浅拷贝，不修改缓存中的共享实例
+     */
+    public ChartDetailDTO toCompact(ChartDetailDTO src) {
+        return withSeries(src, src.getChartData() == null ? null : src.getChartData().compact());
+    }
+
+    /**
+     * 按需对列表中每个图表降采样（maxPoints 为 null 时不处理，否则须不小于 {@link DownsampleUtil#MIN_POINTS}）并转为紧凑格式，返回新的分页结果
+     */
+    public PageResult<ChartListItemDTO> reshape(PageResult<ChartListItemDTO> src, Integer maxPoints, boolean compact) {
+        if (maxPoints == null && !compact) {
+            return src;
+        }
+        List<ChartListItemDTO> list = new ArrayList<>(src.getList().size());
+        for (ChartListItemDTO item : src.getList()) {
+            ChartSeries series = item.getChartData();
+            if (maxPoints != null) {
+                series = downsample(item.getChartType(), series, maxPoints);
+            }
+            if (compact && series != null) {
+                series = series.compact();
+            }
+            ChartListItemDTO dto = new ChartListItemDTO();
+            dto.setId(item.getId());
+            dto.setTitle(item.getTitle());
+            dto.setSubtitle(item.getSubtitle());
+            dto.setChartType(item.getChartType());
+            dto.setPeriod(item.getPeriod());
+            dto.setUnit(item.getUnit());
+            dto.setChartData(series);
+            list.add(dto);
+        }
+        return new PageResult<>(list, src.getTotal(), src.getPage(), src.getSize(), src.getNextCursor());
+    }
+
+    private static ChartDetailDTO withSeries(ChartDetailDTO src, ChartSeries series) {
+        ChartDetailDTO dto = new ChartDetailDTO();
+        dto.setId(src.getId());
+        dto.setTitle(src.getTitle());
+        dto.setSubtitle(src.getSubtitle());
+        dto.setChartType(src.getChartType());
+        dto.setPeriod(src.getPeriod());
+        dto.setUnit(src.getUnit());
+        dto.setChartData(series);
         return dto;
     }
 }
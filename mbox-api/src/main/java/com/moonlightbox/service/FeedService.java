@@ -0,0 +1,176 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.FeedDTO;
+import com.moonlightbox.dto.FeedSectionDTO;
+import com.moonlightbox.dto.PageResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 首页聚合 feed：一次请求内并发查询多个组件类型的第一页列表。
+ * <p>
+ * 条数与首页快照一致的分组直接取 {@link ListSnapshotService} 中的结果，不占用线程池与数据库连接。
+ * 其余分组在有界线程池上并行执行，单组超过 section-timeout 即以 timeout 状态返回（不等待其完成），
+ * 线程池与队列已满时该组为 rejected；其余分组照常返回，整体耗时约等于最慢分组且不超过超时时间。
+ * <p>
+ * 被放弃的查询不能由线程中断取消（JDBC 阻塞 I/O 不响应中断），因此每组查询在只读事务中执行，
+ * 事务超时（section-timeout 向上取整到秒，JDBC 语句超时的最小单位）由 MyBatis 设为语句的 queryTimeout，
+ * 超时后由驱动取消查询并释放连接，慢查询不会在请求返回后继续占用线程池与连接池。
+ */
+@Slf4j
+@Service
+public class FeedService {
+
+    public static final String STATUS_OK = "ok";
+    public static final String STATUS_TIMEOUT = "timeout";
+    public static final String STATUS_REJECTED = "rejected";
+    public static final String STATUS_ERROR = "error";
+
+    private static final int DEFAULT_SECTION_SIZE = 10;
+    private static final int MAX_SECTIONS = 10;
+
+    private final ContentCardService contentCardService;
+    private final ContentVideoService contentVideoService;
+    private final ContentChartService contentChartService;
+    private final ListSnapshotService listSnapshotService;
+    private final TransactionTemplate queryTemplate;
+    private final long sectionTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 一个分组请求：类型 + 条数
+     */
+    public record Section(ContentType type, int size) {
+    }
+
+    public FeedService(ContentCardService contentCardService,
+                       ContentVideoService contentVideoService,
+                       ContentChartService contentChartService,
+                       ListSnapshotService listSnapshotService,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${mbox.feed.section-timeout:800ms}") Duration sectionTimeout,
+                       @Value("${mbox.feed.pool-size:16}") int poolSize,
+                       @Value("${mbox.feed.queue-capacity:256}") int queueCapacity) {
+        this.contentCardService = contentCardService;
+        this.contentVideoService = contentVideoService;
+        this.contentChartService = contentChartService;
+        this.listSnapshotService = listSnapshotService;
+        this.sectionTimeoutMillis = sectionTimeout.toMillis();
+        this.queryTemplate = new TransactionTemplate(transactionManager);
+        this.queryTemplate.setReadOnly(true);
+        this.queryTemplate.setTimeout((int) Math.max(1, (sectionTimeoutMillis + 999) / 1000));
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "feed-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 解析 sections 参数，如 "card:10,video:5,chart"（省略条数时为默认值）；格式非法、类型未知或分组过多时返回 null
+     */
+    public List<Section> parseSections(String sections) {
+        List<Section> result = new ArrayList<>();
+        for (String part : sections.split(",")) {
+            String s = part.trim();
+            if (s.isEmpty()) {
+                continue;
+            }
+            int colon = s.indexOf(':');
+            ContentType type = ContentType.fromCode(colon < 0 ? s : s.substring(0, colon).trim());
+            if (type == null) {
+                return null;
+            }
+            int size = DEFAULT_SECTION_SIZE;
+            if (colon >= 0) {
+                try {
+                    size = Integer.parseInt(s.substring(colon + 1).trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            result.add(new Section(type, size));
+        }
+        return result.isEmpty() || result.size() > MAX_SECTIONS ? null : result;
+    }
+
+    public FeedDTO feed(List<Section> sections) {
+        List<CompletableFuture<FeedSectionDTO>> futures = new ArrayList<>(sections.size());
+        for (Section section : sections) {
+            futures.add(load(section));
+        }
+        List<FeedSectionDTO> result = new ArrayList<>(futures.size());
+        for (CompletableFuture<FeedSectionDTO> future : futures) {
+            // 每个 future 已带超时并在 handle 中兜底，join 不会抛出
+            result.add(future.join());
+        }
+        return new FeedDTO(result);
+    }
+
+    private CompletableFuture<FeedSectionDTO> load(Section section) {
+        ListSnapshotService.Snapshot snapshot = listSnapshotService.find(section.type(), 1, section.size());
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(toSection(section, STATUS_OK, snapshot.data()));
+        }
+        CompletableFuture<PageResult<?>> query;
+        try {
+            query = CompletableFuture.supplyAsync(() -> queryTemplate.execute(status -> list(section)), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(toSection(section, STATUS_REJECTED, null));
+        }
+        return query.orTimeout(sectionTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((data, ex) -> {
+                    if (ex == null) {
+                        return toSection(section, STATUS_OK, data);
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Feed section {} timed out after {} ms", section.type().getCode(), sectionTimeoutMillis);
+                        return toSection(section, STATUS_TIMEOUT, null);
+                    }
+                    log.warn("Feed section {} failed", section.type().getCode(), cause);
+                    return toSection(section, STATUS_ERROR, null);
+                });
+    }
+
+    private PageResult<?> list(Section section) {
+        return switch (section.type()) {
+            case CARD -> contentCardService.list(1, section.size(), false);
+            case VIDEO -> contentVideoService.list(1, section.size(), false);
+            case CHART -> contentChartService.list(1, section.size(), false);
+        };
+    }
+
+    private static FeedSectionDTO toSection(Section section, String status, PageResult<?> data) {
+        FeedSectionDTO dto = new FeedSectionDTO();
+        dto.setType(section.type().getCode());
+        dto.setSize(data == null ? section.size() : data.getSize());
+        dto.setStatus(status);
+        dto.setData(data);
+        return dto;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,115 @@
+package com.moonlightbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moonlightbox.common.ApiResponse;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.event.ChartDataAppendedEvent;
+import com.moonlightbox.util.ETagUtil;
+import com.moonlightbox.util.GzipUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首页列表快照：在内存中保存 card / video / chart 前 N 页（默认 size）的完整 JSON 响应字节，
+ * 命中时控制器直接输出字节（客户端接受 gzip 时输出预压缩字节），不再经过 MyBatis、Jackson 与逐请求压缩。
+ * <p>
+ * 快照按 mbox.snapshot.refresh-interval-seconds 定时重建；内容变更时可调用 {@link #refresh(ContentType)} 立即重建。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListSnapshotService {
+
+    private final ContentCardService contentCardService;
+    private final ContentVideoService contentVideoService;
+    private final ContentChartService contentChartService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${mbox.snapshot.pages:1}")
+    private int pages;
+
+    @Value("${mbox.snapshot.size:10}")
+    private int size;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 已序列化的响应体、其 gzip 压缩字节（构建时压缩一次）、强 ETag，以及序列化前的分页结果（供 /api/feed 复用，只读）
+     */
+    public record Snapshot(byte[] body, byte[] gzipBody, String etag, PageResult<?> data) {
+    }
+
+    /**
+     * 查找快照；非快照范围内的页或尚未构建时返回 null，由调用方回退到实时查询
+     */
+    public Snapshot find(ContentType type, int page, int size) {
+        if (size != this.size || page < 1 || page > pages) {
+            return null;
+        }
+        return snapshots.get(key(type, page));
+    }
+
+    @Scheduled(fixedDelayString = "${mbox.snapshot.refresh-interval-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void refreshAll() {
+        for (ContentType type : ContentType.values()) {
+            try {
+                refresh(type);
+            } catch (RuntimeException e) {
+                log.warn("Refresh {} list snapshot failed", type.getCode(), e);
+            }
+        }
+    }
+
+    public void refresh(ContentType type) {
+        for (int page = 1; page <= pages; page++) {
+            PageResult<?> result = switch (type) {
+                case CARD -> contentCardService.list(page, size, false);
+                case VIDEO -> contentVideoService.list(page, size, false);
+                case CHART -> contentChartService.list(page, size, false);
+            };
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(ApiResponse.ok(result));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            String key = key(type, page);
+            Snapshot previous = snapshots.get(key);
+            if (previous == null || !Arrays.equals(previous.body(), body)) {
+                snapshots.put(key, new Snapshot(body, GzipUtil.compress(body), ETagUtil.strong(body), result));
+            }
+        }
+    }
+
+    /**
+     * 丢弃某类型的快照，在下次重建前回退到实时查询
+     */
+    public void invalidate(ContentType type) {
+        for (int page = 1; page <= pages; page++) {
+            snapshots.remove(key(type, page));
+        }
+    }
+
+    /**
+     * 图表列表含 chartData：写入新数据点（提交后）丢弃图表快照，由下次定时重建
+     */
+    @TransactionalEventListener
+    public void onChartDataAppended(ChartDataAppendedEvent event) {
+        invalidate(ContentType.CHART);
+    }
+
+    private static String key(ContentType type, int page) {
+        return type.getCode() + ":" + page;
+    }
+}
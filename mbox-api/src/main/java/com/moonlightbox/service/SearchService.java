@@ -0,0 +1,179 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.CardListItemDTO;
+import com.moonlightbox.dto.PageResult;
+import com.moonlightbox.dto.SearchHitDTO;
+import com.moonlightbox.dto.VideoListItemDTO;
+import com.moonlightbox.search.SearchDocumentLoader;
+import com.moonlightbox.search.SearchIndex;
+import com.moonlightbox.search.SegmentBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 站内搜索：card / video 的标题、副标题、正文、作者、分类建立内存倒排索引（见 {@link SearchIndex}）。
+ * <p>
+ * 应用就绪后在后台线程流式读取两张表全量构建，构建完成前查询返回 null；之后按 (created_at, id) 水位定时增量索引新行。
+ * 全量与增量都只读取 created_at 不晚于 {@link SyncSupport#ceiling()}（当前时间 - mbox.sync.safety-lag）的行，
+ * 与增量同步相同，晚提交的行不会落在水位之后被跳过。
+ * 已索引行的修改与删除不会反映到索引中，已删除的行在回表时跳过。
+ */
+@Slf4j
+@Service
+public class SearchService {
+
+    private static final int DEFAULT_SIZE = 10;
+    private static final int MAX_SIZE = 50;
+    /**
+     * 查询串最大长度（字符），限制单次查询的词数
+     */
+    private static final int MAX_QUERY_LENGTH = 64;
+
+    private final SearchDocumentLoader searchDocumentLoader;
+    private final ContentCardService contentCardService;
+    private final ContentVideoService contentVideoService;
+    private final SyncSupport syncSupport;
+    private final SearchIndex index;
+    private final boolean enabled;
+    private final int batchSize;
+
+    /**
+     * 已索引的水位；null 表示全量构建尚未完成（只由构建线程与定时任务写入）
+     */
+    private volatile SearchDocumentLoader.Watermarks watermarks;
+
+    public SearchService(SearchDocumentLoader searchDocumentLoader,
+                         ContentCardService contentCardService,
+                         ContentVideoService contentVideoService,
+                         SyncSupport syncSupport,
+                         @Value("${mbox.search.enabled:true}") boolean enabled,
+                         @Value("${mbox.search.max-segments:8}") int maxSegments,
+                         @Value("${mbox.search.batch-size:5000}") int batchSize) {
+        this.searchDocumentLoader = searchDocumentLoader;
+        this.contentCardService = contentCardService;
+        this.contentVideoService = contentVideoService;
+        this.syncSupport = syncSupport;
+        this.index = new SearchIndex(maxSegments);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::build, "search-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        try {
+            SegmentBuilder builder = new SegmentBuilder();
+            SearchDocumentLoader.Watermarks loaded = searchDocumentLoader.loadAll(builder, syncSupport.ceiling());
+            index.reset(builder.build());
+            watermarks = loaded;
+            log.info("Search index built: {} documents in {} ms", index.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.error("Build search index failed, search stays unavailable", e);
+        }
+    }
+
+    /**
+     * 增量索引：读取水位之后的新行生成新段；每表每批至多 batch-size 行，读满时继续下一批
+     */
+    @Scheduled(fixedDelayString = "${mbox.search.refresh-interval-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        SearchDocumentLoader.Watermarks from = watermarks;
+        if (from == null) {
+            return;
+        }
+        try {
+            LocalDateTime ceiling = syncSupport.ceiling();
+            while (true) {
+                SegmentBuilder builder = new SegmentBuilder();
+                SearchDocumentLoader.Watermarks next = searchDocumentLoader.loadSince(builder, from, ceiling, batchSize);
+                index.add(builder.build());
+                watermarks = next;
+                from = next;
+                if (builder.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refresh search index failed", e);
+        }
+    }
+
+    public boolean isReady() {
+        return watermarks != null;
+    }
+
+    /**
+     * 按 BM25 得分返回前 size 条；type 为 null 时不限类型。索引尚未就绪时返回 null。
+     * total 为命中至少一个词的文档数，结果按得分回表取列表字段，期间被删除的行不返回
+     */
+    public PageResult<SearchHitDTO> search(String query, ContentType type, int size) {
+        if (!isReady()) {
+            return null;
+        }
+        int k = size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+        String q = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        SearchIndex.Result result = index.search(q, type, k);
+
+        List<Long> cardIds = new ArrayList<>();
+        List<Long> videoIds = new ArrayList<>();
+        for (SearchIndex.Hit hit : result.hits()) {
+            (hit.type() == ContentType.CARD ? cardIds : videoIds).add(hit.id());
+        }
+        Map<Long, CardListItemDTO> cards = contentCardService.getListItems(cardIds);
+        Map<Long, VideoListItemDTO> videos = contentVideoService.getListItems(videoIds);
+
+        List<SearchHitDTO> list = new ArrayList<>(result.hits().size());
+        for (SearchIndex.Hit hit : result.hits()) {
+            SearchHitDTO dto = null;
+            if (hit.type() == ContentType.CARD) {
+                CardListItemDTO item = cards.get(hit.id());
+                if (item != null) {
+                    dto = toHit(hit, item.getId(), item.getTitle(), item.getSubtitle(), item.getImageUrl(), item.getBadge());
+                }
+            } else {
+                VideoListItemDTO item = videos.get(hit.id());
+                if (item != null) {
+                    dto = toHit(hit, item.getId(), item.getTitle(), item.getSubtitle(), item.getImageUrl(), item.getBadge());
+                }
+            }
+            if (dto != null) {
+                list.add(dto);
+            }
+        }
+        return new PageResult<>(list, result.matched(), 1, k);
+    }
+
+    private static SearchHitDTO toHit(SearchIndex.Hit hit, String id, String title, String subtitle, String imageUrl,
+                                      String badge) {
+        SearchHitDTO dto = new SearchHitDTO();
+        dto.setType(hit.type().getCode());
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setSubtitle(subtitle);
+        dto.setImageUrl(imageUrl);
+        dto.setBadge(badge);
+        dto.setScore(hit.score());
+        return dto;
+    }
+}
@@ -0,0 +1,99 @@
+package com.moonlightbox.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.SyncResult;
+import com.moonlightbox.entity.ContentTombstone;
+import com.moonlightbox.mapper.ContentTombstoneMapper;
+import com.moonlightbox.util.IdParseUtil;
+import com.moonlightbox.util.WatermarkUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 各组件增量同步（sync）的公共部分：可见上限、墓碑查询与结果 / 新水位的组装。
+ * 只在各内容服务的 sync 方法内调用，沿用调用方的只读路由；可见上限同时用于搜索索引的增量（见 SearchService）
+ */
+@Component
+class SyncSupport {
+
+    private static final int DEFAULT_SIZE = 100;
+    private static final int MAX_SIZE = 500;
+
+    private final ContentTombstoneMapper contentTombstoneMapper;
+    private final Duration safetyLag;
+
+    SyncSupport(ContentTombstoneMapper contentTombstoneMapper,
+                @Value("${mbox.sync.safety-lag:5s}") Duration safetyLag) {
+        this.contentTombstoneMapper = contentTombstoneMapper;
+        this.safetyLag = safetyLag;
+    }
+
+    static int clampSize(int size) {
+        return size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * 本次同步可见的时间上限（当前时间 - safetyLag）：更近的时间戳可能属于尚未提交的事务或尚未复制到副本的行，
+     * 若先下发更晚的行并推进水位，这些行之后会被跳过，因此留到下次同步
+     */
+    LocalDateTime ceiling() {
+        return LocalDateTime.now().minus(safetyLag).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * 组装同步结果。rows 为按 (updatedAt, id) 升序多取一行（size + 1）的查询结果；
+     * 墓碑同样多取一行，首次同步不下发此前的删除，墓碑水位直接置为 ceiling
+     */
+    <E, T> SyncResult<T> assemble(ContentType type, WatermarkUtil.Watermark from, LocalDateTime ceiling, int size,
+                                  List<E> rows, Function<E, LocalDateTime> timeGetter, Function<E, Long> idGetter,
+                                  Function<List<E>, List<T>> mapper) {
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        LocalDateTime updatedAt = from.updatedAt();
+        long id = from.id();
+        if (!rows.isEmpty()) {
+            E last = rows.get(rows.size() - 1);
+            updatedAt = timeGetter.apply(last);
+            id = idGetter.apply(last);
+        }
+
+        List<String> deleted = new ArrayList<>();
+        LocalDateTime deletedAt = ceiling;
+        long tombstoneId = 0;
+        if (!from.isStart()) {
+            LambdaQueryWrapper<ContentTombstone> query = new LambdaQueryWrapper<ContentTombstone>()
+                    .eq(ContentTombstone::getContentType, type.getCode())
+                    .le(ContentTombstone::getDeletedAt, ceiling)
+                    .and(w -> w.gt(ContentTombstone::getDeletedAt, from.deletedAt())
+                            .or(o -> o.eq(ContentTombstone::getDeletedAt, from.deletedAt())
+                                    .gt(ContentTombstone::getId, from.tombstoneId())))
+                    .orderByAsc(ContentTombstone::getDeletedAt, ContentTombstone::getId);
+            List<ContentTombstone> tombstones = contentTombstoneMapper.selectPage(new Page<>(1, size + 1, false), query)
+                    .getRecords();
+            if (tombstones.size() > size) {
+                tombstones = tombstones.subList(0, size);
+                hasMore = true;
+            }
+            deletedAt = from.deletedAt();
+            tombstoneId = from.tombstoneId();
+            for (ContentTombstone t : tombstones) {
+                deleted.add(IdParseUtil.toIdString(t.getContentId()));
+                deletedAt = t.getDeletedAt();
+                tombstoneId = t.getId();
+            }
+        }
+        String since = WatermarkUtil.encode(new WatermarkUtil.Watermark(updatedAt, id, deletedAt, tombstoneId));
+        return new SyncResult<>(mapper.apply(rows), deleted, since, hasMore);
+    }
+}
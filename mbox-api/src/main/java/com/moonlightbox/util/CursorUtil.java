@@ -0,0 +1,40 @@
+package com.moonlightbox.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 列表游标分页：将最后一行的 (createdAt, id) 编码为不透明的 cursor 字符串，客户端原样回传
+ */
+public final class CursorUtil {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 游标位置，对应排序键 (created_at DESC, id DESC)
+     */
+    public record Position(LocalDateTime createdAt, long id) {
+    }
+
+    public static String encode(LocalDateTime createdAt, long id) {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标；格式非法时返回 null
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0) return null;
+            return new Position(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.moonlightbox.util;
+
+/**
+ * 图表序列降采样，输入为按顺序排列的 y 值（x 视为等间距的下标）
+ * <p>
+ * {@link #lttb} 选点，输出为保留点的下标（升序）；{@link #bucketAggregate} 把每个等宽桶聚合为一个新值。
+ * 两者都只对 double[] 单遍扫描；NaN 表示缺失值，不参与选点与聚合。目标点数不小于序列长度时不做处理。
+ */
+public final class DownsampleUtil {
+
+    /**
+     * LTTB 的最小目标点数（首尾两点 + 至少一个桶）
+     */
+    public static final int MIN_POINTS = 3;
+
+    /**
+     * 分桶聚合方式
+     */
+    public enum Aggregation {
+        /**
+         * 桶内求和：合并后总量不变（如饼图各扇区的占比）
+         */
+        SUM,
+        /**
+         * 桶内均值：结果与原值量级相同（如柱状图的耗时、日活）
+         */
+        MEAN
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets：首尾点固定，中间每个桶选取与「上一个选中点、下一桶均值点」构成三角形面积最大的点，
+     * 保留折线的形状与极值，适合折线图
+     */
+    public static int[] lttb(double[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < MIN_POINTS) {
+            return identity(n);
+        }
+        int[] out = new int[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个桶的均值点（最后一个桶以末点作为下一桶）
+            int avgStart = (int) ((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) ((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            int count = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                if (!Double.isNaN(y[j])) {
+                    avgX += j;
+                    avgY += y[j];
+                    count++;
+                }
+            }
+            if (count > 0) {
+                avgX /= count;
+                avgY /= count;
+            } else {
+                avgX = avgStart;
+                avgY = y[a];
+            }
+
+            int rangeStart = (int) (i * every) + 1;
+            int rangeEnd = (int) ((i + 1) * every) + 1;
+            double ax = a;
+            double ay = y[a];
+            double maxArea = -1;
+            int picked = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                // 省略 1/2 系数，不影响比较
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - j) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    picked = j;
+                }
+            }
+            out[i + 1] = picked;
+            a = picked;
+        }
+        out[threshold - 1] = n - 1;
+        return out;
+    }
+
+    /**
+     * 等宽分桶，桶 b 覆盖下标 [{@link #bucketStart}(n, threshold, b), bucketStart(n, threshold, b + 1))，
+     * 每个桶内的非 NaN 值按 aggregation 聚合为一个值（全为 NaN 时为 NaN）；返回 threshold 个桶值，threshold 不小于 n 时返回 null
+     */
+    public static double[] bucketAggregate(double[] y, int threshold, Aggregation aggregation) {
+        int n = y.length;
+        if (threshold >= n || threshold < 1) {
+            return null;
+        }
+        double[] out = new double[threshold];
+        for (int b = 0; b < threshold; b++) {
+            int end = bucketStart(n, threshold, b + 1);
+            double sum = 0;
+            int count = 0;
+            for (int j = bucketStart(n, threshold, b); j < end; j++) {
+                if (!Double.isNaN(y[j])) {
+                    sum += y[j];
+                    count++;
+                }
+            }
+            out[b] = count == 0 ? Double.NaN : aggregation == Aggregation.SUM ? sum : sum / count;
+        }
+        return out;
+    }
+
+    public static int bucketStart(int n, int threshold, int b) {
+        return (int) ((long) b * n / threshold);
+    }
+
+    private static int[] identity(int n) {
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = i;
+        }
+        return out;
+    }
+}
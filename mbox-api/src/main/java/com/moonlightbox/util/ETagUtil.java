@@ -0,0 +1,26 @@
+package com.moonlightbox.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 生成强 ETag（带双引号的 MD5 十六进制串）
+ */
+public final class ETagUtil {
+
+    public static String strong(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    public static String strong(String content) {
+        return strong(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 同一资源的另一种表示（如紧凑格式）使用派生 ETag："abc" → "abc-compact"
+     */
+    public static String variant(String etag, String suffix) {
+        return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+}
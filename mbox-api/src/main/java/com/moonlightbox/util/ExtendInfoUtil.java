@@ -1,18 +1,50 @@
 package com.moonlightbox.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
+import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 将 DB 中的 extendInfo 字符串（JSON）解析为 Map，与前端 extendInfo 协议一致
+ * <p>
+ * {@link #parseObject} 的结果按字符串 hash 缓存在定长槽位中（同槽位后写覆盖，条目为软引用，内存紧张时可被回收），
+ * 同一字符串的多次调用返回同一实例，因此结果整体不可变：嵌套的对象 / 数组也包装为只读，修改时抛出 UnsupportedOperationException。
+ * {@link #parseToStringMap} 以流式 JsonParser 直接产出结果，不构建中间 Map，结果同样只读（不共享）。
+ * 非法 JSON 返回空 Map，并计入 {@link #malformedCount()}；命中 / 未命中 / 解析失败次数由 ExtendInfoMetrics 注册为指标。
  */
 public final class ExtendInfoUtil {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader MAP_READER = MAPPER.readerFor(new TypeReference<Map<String, Object>>() {
+    });
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
+
+    /**
+     * 缓存统计（/api/cache/stats）中的名称
+     */
+    public static final String NAME = "extendInfo";
+
+    private static final int CACHE_SLOTS = 1024;
+    private static final AtomicReferenceArray<SoftReference<Parsed>> CACHE = new AtomicReferenceArray<>(CACHE_SLOTS);
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder MALFORMED = new LongAdder();
+
+    private record Parsed(String source, Map<String, Object> value) {
+    }
 
     /**
      * 解析为 Map<String, Object>，支持嵌套结构
@@ -25,31 +57,110 @@ public final class ExtendInfoUtil {
      * 解析为 Map<String, String>，仅包含基础类型且转换为字符串
      */
     public static Map<String, String> parseToStringMap(String extendInfo) {
-        Map<String, Object> parsed = parseObject(extendInfo);
-        if (parsed.isEmpty()) {
+        if (extendInfo == null || extendInfo.isBlank()) {
             return Collections.emptyMap();
         }
-        Map<String, String> out = new LinkedHashMap<>();
-        for (Map.Entry<String, Object> entry : parsed.entrySet()) {
-            Object value = entry.getValue();
-            if (value == null)
-                continue;
-            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
-                out.put(entry.getKey(), String.valueOf(value));
+        try (JsonParser parser = FACTORY.createParser(extendInfo)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                MALFORMED.increment();
+                return Collections.emptyMap();
+            }
+            Map<String, String> out = new LinkedHashMap<>();
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                switch (token) {
+                    case VALUE_STRING -> out.put(field, parser.getText());
+                    case VALUE_NUMBER_INT -> out.put(field, parser.getNumberValue().toString());
+                    case VALUE_NUMBER_FLOAT -> out.put(field, Double.toString(parser.getDoubleValue()));
+                    case VALUE_TRUE -> out.put(field, "true");
+                    case VALUE_FALSE -> out.put(field, "false");
+                    default -> {
+                        // null 或嵌套结构：不输出，且覆盖同名的先前值
+                        out.remove(field);
+                        parser.skipChildren();
+                    }
+                }
             }
+            return out.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(out);
+        } catch (IOException e) {
+            MALFORMED.increment();
+            return Collections.emptyMap();
         }
-        return out;
     }
 
     public static Map<String, Object> parseObject(String extendInfo) {
         if (extendInfo == null || extendInfo.isBlank()) {
             return Collections.emptyMap();
         }
+        int h = extendInfo.hashCode();
+        int slot = (h ^ (h >>> 16)) & (CACHE_SLOTS - 1);
+        SoftReference<Parsed> ref = CACHE.get(slot);
+        Parsed cached = ref == null ? null : ref.get();
+        if (cached != null && cached.source.equals(extendInfo)) {
+            HITS.increment();
+            return cached.value;
+        }
+        MISSES.increment();
+        Map<String, Object> value;
         try {
-            return MAPPER.readValue(extendInfo, new TypeReference<Map<String, Object>>() {
-            });
-        } catch (Exception e) {
-            return Collections.emptyMap();
+            Map<String, Object> parsed = MAP_READER.readValue(extendInfo);
+            value = parsed == null ? Collections.emptyMap() : freezeMap(parsed);
+        } catch (IOException e) {
+            MALFORMED.increment();
+            value = Collections.emptyMap();
+        }
+        CACHE.set(slot, new SoftReference<>(new Parsed(extendInfo, value)));
+        return value;
+    }
+
+    /**
+     * 递归包装为只读：缓存的结果在调用方之间共享，任何一层都不能被修改
+     */
+    private static Map<String, Object> freezeMap(Map<String, Object> map) {
+        map.replaceAll((k, v) -> freeze(v));
+        return Collections.unmodifiableMap(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return freezeMap((Map<String, Object>) map);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> items = (List<Object>) list;
+            items.replaceAll(ExtendInfoUtil::freeze);
+            return Collections.unmodifiableList(items);
+        }
+        return value;
+    }
+
+    /**
+     * 解析失败（非法 JSON 或顶层不是对象）的累计次数
+     */
+    public static long malformedCount() {
+        return MALFORMED.sum();
+    }
+
+    public static long cacheHitCount() {
+        return HITS.sum();
+    }
+
+    public static long cacheMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * 当前缓存的条目数（未被覆盖且未被回收的槽位），遍历全部 {@value #CACHE_SLOTS} 个槽位，仅用于统计
+     */
+    public static long cachedCount() {
+        long n = 0;
+        for (int i = 0; i < CACHE_SLOTS; i++) {
+            SoftReference<Parsed> ref = CACHE.get(i);
+            if (ref != null && ref.get() != null) {
+                n++;
+            }
         }
+        return n;
     }
 }
@@ -0,0 +1,55 @@
+package com.moonlightbox.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预压缩响应体：只压缩一次、多次复用，因此使用最高压缩级别（Tomcat 按请求压缩时为默认级别）
+ */
+public final class GzipUtil {
+
+    public static final String ENCODING = "gzip";
+
+    public static byte[] compress(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 客户端是否接受 gzip（Accept-Encoding 含 gzip 且未声明 q=0）
+     */
+    public static boolean accepts(WebRequest webRequest) {
+        String header = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String token : header.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase(ENCODING) || coding.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].replace(" ", "").matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,21 +1,115 @@
 package com.moonlightbox.util;
 
+import java.util.Arrays;
+
 /**
  * 安全解析详情接口的 id 参数（可能为 "1,1" 等，取第一个数字）
+ * <p>
+ * 直接在原始 CharSequence 上单遍扫描：不 trim、不 split、不产生子串，非法输入也不抛异常。
+ * 语义与 {@code Long.parseLong(id.trim().split(",")[0].trim())} 一致（含 +/- 号与 Unicode 数字），
+ * 仅有两处差异：全为逗号的输入（如 ","）返回无效而非抛出越界异常；Long.MIN_VALUE 视为无效 id。
  */
 public final class IdParseUtil {
 
+    /**
+     * {@link #parseLongId} 解析失败时的返回值
+     */
+    public static final long NO_ID = Long.MIN_VALUE;
+
     /**
      * 解析 id 为 Long。若为 "1,1" 则取 "1"；若无法解析则返回 null。
      */
     public static Long parseId(String id) {
-        if (id == null || id.isBlank()) return null;
-        String first = id.trim().split(",")[0].trim();
-        if (first.isEmpty()) return null;
-        try {
-            return Long.parseLong(first);
-        } catch (NumberFormatException e) {
-            return null;
+        long pk = parseLongId(id);
+        return pk == NO_ID ? null : pk;
+    }
+
+    /**
+     * 解析 id 为 long，规则同 {@link #parseId}；无法解析时返回 {@link #NO_ID}
+     */
+    public static long parseLongId(CharSequence id) {
+        if (id == null) return NO_ID;
+        int len = id.length();
+        int start = 0;
+        while (start < len && id.charAt(start) <= ' ') start++;
+        int end = start;
+        while (end < len && id.charAt(end) != ',') end++;
+        while (end > start && id.charAt(end - 1) <= ' ') end--;
+        if (start == end) return NO_ID;
+        return parseDecimal(id, start, end);
+    }
+
+    /**
+     * 批量详情的 ids 参数（如 "3, 1,2"）：按逗号拆分，各段规则同 {@link #parseLongId}，空段忽略，重复 id 只保留首次出现。
+     * 任一段非法、去重后为空或超过 maxCount 个时返回 null；结果保持请求顺序。
+     */
+    public static long[] parseIds(CharSequence ids, int maxCount) {
+        if (ids == null) return null;
+        int len = ids.length();
+        long[] buf = new long[Math.min(maxCount, 16)];
+        int n = 0;
+        int start = 0;
+        while (start <= len) {
+            int end = start;
+            while (end < len && ids.charAt(end) != ',') end++;
+            int b = start;
+            int e = end;
+            while (b < e && ids.charAt(b) <= ' ') b++;
+            while (e > b && ids.charAt(e - 1) <= ' ') e--;
+            if (b < e) {
+                long id = parseDecimal(ids, b, e);
+                if (id == NO_ID) return null;
+                if (!contains(buf, n, id)) {
+                    if (n == maxCount) return null;
+                    if (n == buf.length) buf = Arrays.copyOf(buf, Math.min(maxCount, n * 2));
+                    buf[n++] = id;
+                }
+            }
+            start = end + 1;
+        }
+        return n == 0 ? null : Arrays.copyOf(buf, n);
+    }
+
+    /**
+     * 主键输出为字符串（DTO 中的 id 字段），null 保持为 null
+     */
+    public static String toIdString(Long id) {
+        return id == null ? null : Long.toString(id);
+    }
+
+    private static boolean contains(long[] values, int n, long value) {
+        for (int i = 0; i < n; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 十进制解析 [begin, end)，溢出与字符判定规则同 Long.parseLong，失败返回 NO_ID
+     */
+    private static long parseDecimal(CharSequence s, int begin, int end) {
+        int i = begin;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        char first = s.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            } else if (first != '+') {
+                return NO_ID;
+            }
+            if (++i == end) return NO_ID;
+        }
+        long multmin = limit / 10;
+        long result = 0;
+        while (i < end) {
+            int digit = Character.digit(s.charAt(i++), 10);
+            if (digit < 0 || result < multmin) return NO_ID;
+            result *= 10;
+            if (result < limit + digit) return NO_ID;
+            result -= digit;
         }
+        return negative ? result : -result;
     }
 }
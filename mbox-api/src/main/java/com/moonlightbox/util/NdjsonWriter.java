@@ -0,0 +1,56 @@
+package com.moonlightbox.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * NDJSON（每行一个 JSON 对象）输出：复用同一个 JsonGenerator，逐条写入后追加换行，不在每条之后 flush。
+ * <p>
+ * 作为 Consumer 交给流式导出使用；写出失败（如客户端断开）时抛出 UncheckedIOException 以中止读取。
+ */
+public final class NdjsonWriter<T> implements Consumer<T>, Closeable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private long count;
+
+    public NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        // 输出流由容器管理，关闭 writer 时只 flush 不关闭底层流
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 行分隔由 accept 写出，去掉 Jackson 默认在顶层值之间插入的空格
+        this.generator.setRootValueSeparator(null);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 已写出的行数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.moonlightbox.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 增量同步水位：将已下发的最后一行 (updatedAt, id) 与最后一条墓碑 (deletedAt, tombstoneId) 编码为不透明字符串，客户端原样回传
+ */
+public final class WatermarkUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 同步水位，对应排序键 (updated_at ASC, id ASC) 与 (deleted_at ASC, id ASC)。
+     * updatedAt 为 null 表示尚未下发过任何行；deletedAt 为 null 表示首次同步（不下发此前的删除）
+     */
+    public record Watermark(LocalDateTime updatedAt, long id, LocalDateTime deletedAt, long tombstoneId) {
+
+        public static final Watermark START = new Watermark(null, 0, null, 0);
+
+        public boolean isStart() {
+            return deletedAt == null;
+        }
+    }
+
+    public static String encode(Watermark w) {
+        String raw = (w.updatedAt() == null ? "" : w.updatedAt().toString()) + SEPARATOR + w.id() + SEPARATOR
+                + (w.deletedAt() == null ? "" : w.deletedAt().toString()) + SEPARATOR + w.tombstoneId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码水位；空串表示从头同步（返回 {@link Watermark#START}），格式非法时返回 null
+     */
+    public static Watermark decode(String since) {
+        if (since == null || since.isBlank()) return Watermark.START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(since.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) return null;
+            return new Watermark(parseTime(parts[0]), Long.parseLong(parts[1]),
+                    parseTime(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime parseTime(String s) {
+        return s.isEmpty() ? null : LocalDateTime.parse(s);
+    }
+}
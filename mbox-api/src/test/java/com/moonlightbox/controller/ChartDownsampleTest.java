@@ -0,0 +1,77 @@
+package com.moonlightbox.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * maxPoints 校验与按图表类型的降采样方式
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChartDownsampleTest {
+
+    private static final long BAR_ID = 2001;
+    private static final long PIE_ID = 2002;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM content_chart WHERE id IN (?, ?)", BAR_ID, PIE_ID);
+        jdbcTemplate.update("INSERT INTO content_chart (id, title, chart_type) VALUES (?, 'bar', 'bar'), (?, 'pie', 'pie')", BAR_ID, PIE_ID);
+        List<Object[]> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            points.add(new Object[]{BAR_ID, "d" + i, i + 1, i});
+            points.add(new Object[]{PIE_ID, "s" + i, 10, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO content_chart_data (chart_id, x_label, y_value, sort_order) VALUES (?, ?, ?, ?)", points);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "0", "2"})
+    void maxPointsBelowMinimumIsRejected(String maxPoints) throws Exception {
+        mockMvc.perform(get("/api/chart/detail").param("id", String.valueOf(BAR_ID)).param("maxPoints", maxPoints))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/chart/list").param("maxPoints", maxPoints))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void barChartBucketsAreAveraged() throws Exception {
+        mockMvc.perform(get("/api/chart/detail").param("id", String.valueOf(BAR_ID)).param("maxPoints", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.chartData.length()").value(5))
+                .andExpect(jsonPath("$.data.chartData[0].x").value("d0~d1"))
+                .andExpect(jsonPath("$.data.chartData[0].y").value(1.5))
+                .andExpect(jsonPath("$.data.chartData[4].y").value(9.5));
+    }
+
+    @Test
+    void pieChartBucketsAreSummed() throws Exception {
+        mockMvc.perform(get("/api/chart/detail").param("id", String.valueOf(PIE_ID)).param("maxPoints", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.chartData.length()").value(4))
+                .andExpect(jsonPath("$.data.chartData[0].y").value(20.0))
+                .andExpect(jsonPath("$.data.chartData[1].y").value(30.0));
+    }
+}
@@ -0,0 +1,83 @@
+package com.moonlightbox.controller;
+
+import com.moonlightbox.metrics.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 图表列表的子表数据以一次 IN 查询批量加载：/api/chart/list 执行的 SQL 条数与页大小无关（不随行数出现 N+1）。
+ * 语句数取自 {@link SqlMetricsInterceptor} 记录的 mbox.sql 计时器
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChartListStatementCountTest {
+
+    private static final int CHARTS = 60;
+    private static final int POINTS_PER_CHART = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM content_chart");
+        List<Object[]> points = new ArrayList<>();
+        for (int i = 0; i < CHARTS; i++) {
+            jdbcTemplate.update("INSERT INTO content_chart (id, title, chart_type) VALUES (?, ?, 'line')", 1000 + i, "chart-" + i);
+            for (int j = 0; j < POINTS_PER_CHART; j++) {
+                points.add(new Object[]{1000 + i, "x" + j, j * 1.5, j});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO content_chart_data (chart_id, x_label, y_value, sort_order) VALUES (?, ?, ?, ?)", points);
+    }
+
+    @Test
+    void statementCountDoesNotDependOnPageSize() throws Exception {
+        // 首次请求填充列表总数缓存，之后的请求不再计数
+        statementsFor(1);
+        long single = statementsFor(1);
+        long fifty = statementsFor(50);
+
+        assertThat(fifty).isEqualTo(single);
+        // 版本探测 + 主表分页 + 子表 IN 查询
+        assertThat(single).isBetween(1L, 3L);
+    }
+
+    private long statementsFor(int size) throws Exception {
+        long before = executedStatements();
+        mockMvc.perform(get("/api/chart/list").param("page", "1").param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.list.length()").value(size))
+                .andExpect(jsonPath("$.data.list[0].chartData.length()").value(POINTS_PER_CHART));
+        return executedStatements() - before;
+    }
+
+    private long executedStatements() {
+        return meterRegistry.find(SqlMetricsInterceptor.TIMER_NAME).timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
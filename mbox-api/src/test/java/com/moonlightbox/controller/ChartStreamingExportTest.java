@@ -0,0 +1,86 @@
+package com.moonlightbox.controller;
+
+import com.moonlightbox.support.H2StreamingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /api/chart/export 逐行流式输出：在 -Xmx256m 的堆上导出 100 万行（约 600MB 明细），一次性装入 List 必然 OOM。
+ * 数据放在文件型 H2 中，避免内存库本身占用堆；由 pom 中单独的 surefire 执行以受限堆运行
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(H2StreamingConfig.class)
+@DirtiesContext
+class ChartStreamingExportTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP = 300L * 1024 * 1024;
+    private static final Path DB_DIR = Path.of("target", "export-test-db");
+
+    @Autowired
+    private ChartController chartController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        FileSystemUtils.deleteRecursively(DB_DIR);
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:./" + DB_DIR.resolve("export")
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;LAZY_QUERY_EXECUTION=TRUE");
+    }
+
+    @Test
+    void exportsMillionRowsWithinBoundedHeap() throws IOException {
+        assertThat(Runtime.getRuntime().maxMemory()).as("需以受限堆运行（-Xmx256m）").isLessThanOrEqualTo(MAX_HEAP);
+        jdbcTemplate.update("INSERT INTO content_chart (title, subtitle, chart_type) "
+                + "SELECT CONCAT('chart-', r.\"X\", REPEAT('t', 200)), REPEAT('s', 300), 'line' FROM SYSTEM_RANGE(1, ?) r", ROWS);
+
+        StreamingResponseBody body = chartController.export().getBody();
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        body.writeTo(out);
+
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertThat(out.bytes).isGreaterThan(MAX_HEAP);
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+
+        long lines;
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.moonlightbox.controller;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 列表 ETag 覆盖本页行的修改：原地修改标题后，旧 ETag 不再得到 304
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListEtagTest {
+
+    /**
+     * 小于首页快照的 size，走列表版本探测
+     */
+    private static final String PAGE_SIZE = "3";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"card", "video"})
+    void inPlaceEditChangesEtag(String type) throws Exception {
+        String table = "content_" + type;
+        // created_at 在最前，保证位于第一页
+        jdbcTemplate.update("INSERT INTO " + table + " (title, created_at) VALUES ('before', '2099-01-01 00:00:00')");
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table + " WHERE title = 'before'", Long.class);
+
+        String etag = mockMvc.perform(get("/api/" + type + "/list").param("page", "1").param("size", PAGE_SIZE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/" + type + "/list").param("page", "1").param("size", PAGE_SIZE)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // updated_at 为毫秒精度，避免与插入落在同一毫秒
+        Thread.sleep(5);
+        jdbcTemplate.update("UPDATE " + table + " SET title = 'after' WHERE id = ?", id);
+
+        String changed = mockMvc.perform(get("/api/" + type + "/list").param("page", "1").param("size", PAGE_SIZE)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.list[0].title").value("after"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotNull().isNotEqualTo(etag);
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ?", id);
+    }
+}
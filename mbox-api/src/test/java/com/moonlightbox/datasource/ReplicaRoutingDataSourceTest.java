@@ -0,0 +1,203 @@
+package com.moonlightbox.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 主库与副本各为一个内存 H2，表 node 中写有库名：只读查询落在副本，客户端写入后其只读查询回到主库，
+ * 其他客户端与请求之外的写入不受影响；同一请求 / 只读路由内的查询固定在同一副本。
+ * 数据源的组装方式与 DataSourceConfig 相同（LazyConnectionDataSourceProxy 包装）
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration STICKY_WINDOW = Duration.ofSeconds(2);
+
+    private HikariDataSource primary;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+    private WriteStickinessFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        routing = new ReplicaRoutingDataSource(primary, List.of(database("replica")),
+                ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, STICKY_WINDOW, Duration.ofSeconds(30));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+        filter = new WriteStickinessFilter(STICKY_WINDOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyPathsUseReplica() {
+        assertThat(readOnlyTxRead()).isEqualTo("replica");
+        boolean previous = RoutingContext.enterReadOnly();
+        try {
+            assertThat(read()).isEqualTo("replica");
+        } finally {
+            RoutingContext.restore(previous);
+        }
+        assertThat(read()).isEqualTo("primary");
+        String inWriteTx = writeTx.execute(status -> read());
+        assertThat(inWriteTx).isEqualTo("primary");
+    }
+
+    @Test
+    void readsAfterWriteInSameRequestUsePrimary() throws Exception {
+        List<String> nodes = new ArrayList<>();
+        MockHttpServletResponse response = request(null, () -> {
+            nodes.add(readOnlyTxRead());
+            write();
+            nodes.add(readOnlyTxRead());
+        });
+
+        assertThat(nodes).containsExactly("replica", "primary");
+        Cookie cookie = response.getCookie(WriteStickinessFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(2);
+    }
+
+    @Test
+    void stickinessIsScopedToWritingClient() throws Exception {
+        MockHttpServletResponse written = request(null, this::write);
+        Cookie cookie = written.getCookie(WriteStickinessFilter.COOKIE_NAME);
+
+        List<String> nodes = new ArrayList<>();
+        request(cookie, () -> nodes.add(readOnlyTxRead()));
+        request(null, () -> nodes.add(readOnlyTxRead()));
+
+        assertThat(nodes).containsExactly("primary", "replica");
+    }
+
+    @Test
+    void expiredOrFutureWriteTimeIsIgnored() throws Exception {
+        long now = System.currentTimeMillis();
+        List<String> nodes = new ArrayList<>();
+        request(new Cookie(WriteStickinessFilter.COOKIE_NAME, Long.toString(now - 10_000)), () -> nodes.add(readOnlyTxRead()));
+        request(new Cookie(WriteStickinessFilter.COOKIE_NAME, Long.toString(now + 3_600_000)), () -> nodes.add(readOnlyTxRead()));
+        request(new Cookie(WriteStickinessFilter.COOKIE_NAME, "abc"), () -> nodes.add(readOnlyTxRead()));
+
+        assertThat(nodes).containsExactly("replica", "replica", "replica");
+    }
+
+    @Test
+    void writesOutsideRequestsDoNotAffectReaders() throws Exception {
+        // 后台线程（如批量写入）的写事务
+        write();
+        routing.markWrite();
+
+        List<String> nodes = new ArrayList<>();
+        nodes.add(readOnlyTxRead());
+        request(null, () -> nodes.add(readOnlyTxRead()));
+
+        assertThat(nodes).containsExactly("replica", "replica");
+    }
+
+    @Test
+    void primaryScopeReadsPrimaryWithoutStickiness() throws Exception {
+        List<String> nodes = new ArrayList<>();
+        MockHttpServletResponse response = request(null, () -> {
+            nodes.add(RoutingContext.onPrimary(this::readOnlyTxRead));
+            nodes.add(readOnlyTxRead());
+        });
+
+        assertThat(nodes).containsExactly("primary", "replica");
+        assertThat(response.getCookie(WriteStickinessFilter.COOKIE_NAME)).isNull();
+    }
+
+    @Test
+    void replicaIsPinnedPerScope() throws Exception {
+        HikariDataSource replica1 = database("replica-1");
+        HikariDataSource replica2 = database("replica-2");
+        try (ReplicaRoutingDataSource twoReplicas = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2),
+                ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, STICKY_WINDOW, Duration.ofSeconds(30))) {
+            JdbcTemplate jdbc = new JdbcTemplate(new LazyConnectionDataSourceProxy(twoReplicas));
+            List<String> first = new ArrayList<>();
+            List<String> second = new ArrayList<>();
+            request(null, () -> readOnly(() -> {
+                for (int i = 0; i < 4; i++) {
+                    first.add(jdbc.queryForObject("SELECT name FROM node", String.class));
+                }
+            }));
+            // 请求之外：最外层只读路由为一个作用域
+            readOnly(() -> {
+                for (int i = 0; i < 4; i++) {
+                    second.add(jdbc.queryForObject("SELECT name FROM node", String.class));
+                }
+            });
+
+            assertThat(first).hasSize(4).containsOnly(first.get(0));
+            assertThat(second).hasSize(4).containsOnly(second.get(0));
+            assertThat(List.of(first.get(0), second.get(0))).containsExactlyInAnyOrder("replica-1", "replica-2");
+        }
+    }
+
+    private static void readOnly(Runnable body) {
+        boolean previous = RoutingContext.enterReadOnly();
+        try {
+            body.run();
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+
+    private MockHttpServletResponse request(Cookie cookie, Runnable body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/card/list");
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> body.run());
+        return response;
+    }
+
+    private String readOnlyTxRead() {
+        return readOnlyTx.execute(status -> read());
+    }
+
+    private String read() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void write() {
+        writeTx.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
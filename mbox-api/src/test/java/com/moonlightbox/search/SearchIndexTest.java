@@ -0,0 +1,48 @@
+package com.moonlightbox.search;
+
+import com.moonlightbox.common.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    @Test
+    void incrementalSegmentsMergeWithoutRewritingBaseSegment() {
+        SearchIndex index = new SearchIndex(4);
+        Segment base = segment(0, 10_000);
+        index.reset(base);
+
+        int total = 10_000;
+        for (int i = 0; i < 50; i++) {
+            index.add(segment(total, 100));
+            total += 100;
+            assertThat(index.segmentCount()).isLessThanOrEqualTo(4);
+            assertThat(index.segments().get(0)).isSameAs(base);
+        }
+
+        assertThat(index.size()).isEqualTo(total);
+        assertThat(index.search("common", null, 10).matched()).isEqualTo(total);
+        assertThat(index.search("doc" + (total - 1), null, 1).hits())
+                .singleElement().extracting(SearchIndex.Hit::id).isEqualTo((long) total - 1);
+    }
+
+    @Test
+    void baseSegmentJoinsOnceIncrementsReachItsSize() {
+        SearchIndex index = new SearchIndex(2);
+        index.reset(segment(0, 100));
+        index.add(segment(100, 100));
+        index.add(segment(200, 100));
+
+        assertThat(index.segmentCount()).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(300);
+    }
+
+    private static Segment segment(int firstId, int n) {
+        SegmentBuilder builder = new SegmentBuilder();
+        for (int i = firstId; i < firstId + n; i++) {
+            builder.add(ContentType.CARD, i, "common doc" + i, "", "", "", null);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.event.ChartDataAppendedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 可重试的写入异常按退避重试，重试耗尽的点计入 dropped；成功写入的点带回生成的 id
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ChartIngestServiceTest {
+
+    private static final long CHART_ID = 3001;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final List<ChartDataAppendedEvent> events = new CopyOnWriteArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private ChartIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(PreparedStatementCreator psc, BatchPreparedStatementSetter pss, KeyHolder keys) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+                }
+                return super.batchUpdate(psc, pss, keys);
+            }
+        };
+        jdbcTemplate.update("DELETE FROM content_chart_data WHERE chart_id = ?", CHART_ID);
+        jdbcTemplate.update("DELETE FROM content_chart WHERE id = ?", CHART_ID);
+        jdbcTemplate.update("INSERT INTO content_chart (id, title, chart_type) VALUES (?, 'ingest', 'line')", CHART_ID);
+        service = new ChartIngestService(null, jdbcTemplate, new TransactionTemplate(transactionManager),
+                event -> events.add((ChartDataAppendedEvent) event),
+                meterRegistry, 1000, 100, Duration.ofMillis(10), 100, MAX_ATTEMPTS, Duration.ofMillis(1));
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    void transientFailuresAreRetried() throws InterruptedException {
+        failuresLeft.set(MAX_ATTEMPTS - 1);
+        assertThat(service.offer(points(3))).isTrue();
+
+        awaitPoints("written", 3);
+        assertThat(counter("dropped")).isZero();
+        assertThat(meterRegistry.counter("mbox.ingest.retries").count()).isEqualTo(MAX_ATTEMPTS - 1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM content_chart_data WHERE chart_id = ? ORDER BY id", Long.class, CHART_ID))
+                .containsExactlyElementsOf(events.get(0).points().get(CHART_ID).stream().map(ContentChartData::getId).toList());
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void pointsAreCountedAsDroppedAfterLastAttempt() throws InterruptedException {
+        failuresLeft.set(MAX_ATTEMPTS);
+        assertThat(service.offer(points(3))).isTrue();
+
+        awaitPoints("dropped", 3);
+        assertThat(counter("written")).isZero();
+        assertThat(meterRegistry.counter("mbox.ingest.retries").count()).isEqualTo(MAX_ATTEMPTS - 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content_chart_data WHERE chart_id = ?", Long.class, CHART_ID))
+                .isZero();
+        assertThat(events).isEmpty();
+    }
+
+    private List<ContentChartData> points(int n) {
+        List<ContentChartData> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ContentChartData p = new ContentChartData();
+            p.setChartId(CHART_ID);
+            p.setXLabel("x" + i);
+            p.setYValue((double) i);
+            p.setSortOrder(i);
+            p.setTs(LocalDateTime.now());
+            points.add(p);
+        }
+        return points;
+    }
+
+    private double counter(String result) {
+        return meterRegistry.counter("mbox.ingest.points", "result", result).count();
+    }
+
+    private void awaitPoints(String result, int n) throws InterruptedException {
+        for (int i = 0; i < 200 && counter(result) < n; i++) {
+            Thread.sleep(25);
+        }
+        assertThat(counter(result)).isEqualTo(n);
+    }
+}
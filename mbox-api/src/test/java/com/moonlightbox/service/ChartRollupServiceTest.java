@@ -0,0 +1,145 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.dto.ChartRollupDTO;
+import com.moonlightbox.entity.ContentChartData;
+import com.moonlightbox.event.ChartDataAppendedEvent;
+import com.moonlightbox.mapper.ContentChartDataMapper;
+import com.moonlightbox.mapper.ContentChartMapper;
+import com.moonlightbox.support.H2StreamingConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 冷加载不阻塞写入：加载读取明细期间提交的批次进入补放缓冲，加载完成后补放；快照中已包含的点按 id 跳过，不重复计数
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(H2StreamingConfig.class)
+class ChartRollupServiceTest {
+
+    private static final long CHART_ID = 3101;
+
+    @Autowired
+    private ContentChartMapper contentChartMapper;
+
+    @Autowired
+    private ContentChartDataMapper contentChartDataMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CountDownLatch scanning = new CountDownLatch(1);
+    private final CountDownLatch proceed = new CountDownLatch(1);
+    private ChartRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM content_chart_data WHERE chart_id = ?", CHART_ID);
+        jdbcTemplate.update("DELETE FROM content_chart WHERE id = ?", CHART_ID);
+        jdbcTemplate.update("INSERT INTO content_chart (id, title, chart_type, period) VALUES (?, 'rollup', 'line', '24h')", CHART_ID);
+        // 明细扫描开始前停住，模拟大图表的慢加载
+        ContentChartDataMapper slowMapper = (ContentChartDataMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ContentChartDataMapper.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("streamSince")) {
+                        scanning.countDown();
+                        assertThat(proceed.await(10, TimeUnit.SECONDS)).isTrue();
+                    }
+                    try {
+                        return method.invoke(contentChartDataMapper, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        service = new ChartRollupService(contentChartMapper, slowMapper, jdbcTemplate, transactionManager,
+                false, 10, Duration.ofHours(1));
+    }
+
+    @Test
+    void batchesCommittedDuringLoadAreReplayedOnce() throws Exception {
+        insert(1, 2, 3);
+        // 加载开始前已提交、事件尚未送达的批次
+        List<ContentChartData> beforeLoad = insert(4);
+
+        CompletableFuture<ChartRollupDTO> load = CompletableFuture.supplyAsync(() -> service.rollup(Long.toString(CHART_ID), "24h", "1h"));
+        assertThat(scanning.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // 加载停在扫描中时写入与事件送达都不等待加载
+        service.onChartDataAppended(event(beforeLoad));
+        List<ContentChartData> duringLoad = insert(5, 6);
+        service.onChartDataAppended(event(duringLoad));
+        assertThat(load).isNotDone();
+        proceed.countDown();
+
+        assertSummary(load.get(10, TimeUnit.SECONDS), 6, 21);
+
+        // 加载完成后的批次增量累加，重复送达的点跳过
+        List<ContentChartData> afterLoad = insert(7);
+        service.onChartDataAppended(event(afterLoad));
+        service.onChartDataAppended(event(duringLoad));
+        assertSummary(service.rollup(Long.toString(CHART_ID), "24h", "1h"), 7, 28);
+    }
+
+    private static void assertSummary(ChartRollupDTO dto, long count, double sum) {
+        assertThat(Arrays.stream(dto.getCount()).sum()).isEqualTo(count);
+        assertThat(Arrays.stream(dto.getSum()).sum()).isEqualTo(sum);
+    }
+
+    /**
+     * 以一个事务写入若干点并带回生成的 id，等同批量写入的一次 flush
+     */
+    private List<ContentChartData> insert(double... values) {
+        List<ContentChartData> rows = new ArrayList<>();
+        for (double y : values) {
+            ContentChartData p = new ContentChartData();
+            p.setChartId(CHART_ID);
+            p.setXLabel("x");
+            p.setYValue(y);
+            p.setSortOrder(0);
+            p.setTs(LocalDateTime.now().minusMinutes(10));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement("INSERT INTO content_chart_data (chart_id, x_label, y_value, sort_order, ts) "
+                        + "VALUES (?, ?, ?, ?, ?)", new String[]{"id"});
+                ps.setLong(1, CHART_ID);
+                ps.setString(2, p.getXLabel());
+                ps.setDouble(3, y);
+                ps.setInt(4, 0);
+                ps.setObject(5, p.getTs());
+                return ps;
+            }, keys);
+            p.setId(keys.getKey().longValue());
+            rows.add(p);
+        }
+        return rows;
+    }
+
+    private static ChartDataAppendedEvent event(List<ContentChartData> rows) {
+        return new ChartDataAppendedEvent(Map.of(CHART_ID, rows));
+    }
+}
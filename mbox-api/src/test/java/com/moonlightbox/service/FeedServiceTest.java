@@ -0,0 +1,74 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.common.ContentType;
+import com.moonlightbox.dto.FeedDTO;
+import com.moonlightbox.dto.FeedSectionDTO;
+import com.moonlightbox.metrics.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FeedServiceTest {
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private ListSnapshotService listSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM content_card");
+        for (int i = 0; i < 12; i++) {
+            jdbcTemplate.update("INSERT INTO content_card (title) VALUES (?)", "card-" + i);
+        }
+        listSnapshotService.refresh(ContentType.CARD);
+    }
+
+    @Test
+    void snapshotSizedSectionIsServedWithoutQueries() {
+        long before = executedStatements();
+
+        FeedDTO feed = feedService.feed(List.of(new FeedService.Section(ContentType.CARD, 10)));
+
+        assertThat(executedStatements()).isEqualTo(before);
+        FeedSectionDTO section = feed.getSections().get(0);
+        assertThat(section.getStatus()).isEqualTo(FeedService.STATUS_OK);
+        assertThat(section.getData().getList()).hasSize(10);
+    }
+
+    @Test
+    void otherSizesAreQueried() {
+        long before = executedStatements();
+
+        FeedDTO feed = feedService.feed(List.of(new FeedService.Section(ContentType.CARD, 5)));
+
+        assertThat(executedStatements()).isGreaterThan(before);
+        FeedSectionDTO section = feed.getSections().get(0);
+        assertThat(section.getStatus()).isEqualTo(FeedService.STATUS_OK);
+        assertThat(section.getData().getList()).hasSize(5);
+    }
+
+    private long executedStatements() {
+        return meterRegistry.find(SqlMetricsInterceptor.TIMER_NAME).timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
@@ -0,0 +1,69 @@
+package com.moonlightbox.service;
+
+import com.moonlightbox.support.H2StreamingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 增量索引只读取 created_at 早于 safety-lag 的行：水位不会越过之后才提交的、时间更早的行。
+ * 全量构建流式读取整表，导入 {@link H2StreamingConfig}
+ */
+@SpringBootTest(properties = {
+        "mbox.search.enabled=true",
+        "mbox.search.refresh-interval-seconds=3600",
+        "mbox.sync.safety-lag=2s"
+})
+@ActiveProfiles("test")
+@Import(H2StreamingConfig.class)
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lateCommittedRowBelowNewestRowIsIndexed() throws InterruptedException {
+        for (int i = 0; i < 100 && !searchService.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(searchService.isReady()).isTrue();
+        // 全量构建的水位不晚于构建时刻 - safety-lag，之后的 t0 - 2s 必在水位之后
+        Thread.sleep(1_000);
+
+        LocalDateTime t0 = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        insertCard("searchlagold", t0.minusSeconds(2));
+        insertCard("searchlagnewest", t0);
+        searchService.refresh();
+
+        assertThat(total("searchlagold")).isEqualTo(1);
+        assertThat(total("searchlagnewest")).isZero();
+
+        // 晚于上次增量提交，created_at 却早于已存在的最新行
+        insertCard("searchlaglate", t0.minusSeconds(1));
+        Thread.sleep(3_100);
+        searchService.refresh();
+
+        assertThat(total("searchlagnewest")).isEqualTo(1);
+        assertThat(total("searchlaglate")).isEqualTo(1);
+    }
+
+    private void insertCard(String title, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO content_card (title, created_at) VALUES (?, ?)", title, Timestamp.valueOf(createdAt));
+    }
+
+    private long total(String query) {
+        return searchService.search(query, null, 10).getTotal();
+    }
+}
@@ -0,0 +1,74 @@
+package com.moonlightbox.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 流式查询在 H2 上的兼容：Connector/J 以 fetchSize = Integer.MIN_VALUE 表示逐行流式读取，H2 拒绝负值（Invalid value）。
+ * 导入该配置的测试中，数据源返回的语句忽略负的 fetchSize；配合 URL 中的 LAZY_QUERY_EXECUTION=TRUE，H2 同样按需读取结果
+ */
+@TestConfiguration
+public class H2StreamingConfig {
+
+    @Bean
+    static BeanPostProcessor negativeFetchSizeIgnoringDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? new IgnoreNegativeFetchSize(dataSource) : bean;
+            }
+        };
+    }
+
+    private static final class IgnoreNegativeFetchSize extends DelegatingDataSource {
+
+        IgnoreNegativeFetchSize(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof Statement statement ? wrap(statement, method.getReturnType()) : result;
+                    });
+        }
+
+        private static Object wrap(Statement statement, Class<?> type) {
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("setFetchSize") && (int) args[0] < 0) {
+                            return null;
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
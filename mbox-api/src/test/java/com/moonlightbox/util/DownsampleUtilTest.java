@@ -0,0 +1,59 @@
+package com.moonlightbox.util;
+
+import com.moonlightbox.dto.ChartSeries;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsampleUtilTest {
+
+    private static final double[] VALUES = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    @Test
+    void meanKeepsMagnitudeAndSumKeepsTotal() {
+        double[] mean = DownsampleUtil.bucketAggregate(VALUES, 3, DownsampleUtil.Aggregation.MEAN);
+        double[] sum = DownsampleUtil.bucketAggregate(VALUES, 3, DownsampleUtil.Aggregation.SUM);
+
+        // 桶边界 [0,3) [3,6) [6,10)
+        assertThat(mean).containsExactly(2, 5, 8.5);
+        assertThat(sum).containsExactly(6, 15, 34);
+        assertThat(sum[0] + sum[1] + sum[2]).isEqualTo(55);
+    }
+
+    @Test
+    void missingValuesAreSkipped() {
+        double[] y = {Double.NaN, 4, Double.NaN, Double.NaN};
+
+        assertThat(DownsampleUtil.bucketAggregate(y, 2, DownsampleUtil.Aggregation.MEAN)).containsExactly(4, Double.NaN);
+    }
+
+    @Test
+    void thresholdNotBelowLengthLeavesSeriesUntouched() {
+        assertThat(DownsampleUtil.bucketAggregate(VALUES, 10, DownsampleUtil.Aggregation.SUM)).isNull();
+        ChartSeries series = new ChartSeries(new String[]{"a", "b"}, new double[]{1, 2});
+        assertThat(series.bucket(2, DownsampleUtil.Aggregation.MEAN)).isSameAs(series);
+    }
+
+    @Test
+    void bucketLabelsSpanFirstToLast() {
+        ChartSeries series = new ChartSeries(new String[]{"d1", "d2", "d3", "d4", "d5"}, new double[]{1, 2, 3, 4, 5});
+
+        ChartSeries sampled = series.bucket(3, DownsampleUtil.Aggregation.MEAN);
+
+        // 桶边界 [0,1) [1,3) [3,5)
+        assertThat(sampled.size()).isEqualTo(3);
+        assertThat(new String[]{sampled.label(0), sampled.label(1), sampled.label(2)}).containsExactly("d1", "d2~d3", "d4~d5");
+        assertThat(new double[]{sampled.value(0), sampled.value(1), sampled.value(2)}).containsExactly(1, 2.5, 4.5);
+    }
+
+    @Test
+    void lttbKeepsEndpointsAndExtremes() {
+        double[] y = new double[100];
+        y[37] = 50;
+        y[80] = -20;
+
+        int[] picked = DownsampleUtil.lttb(y, 10);
+
+        assertThat(picked).hasSize(10).startsWith(0).endsWith(99).contains(37, 80);
+    }
+}
@@ -0,0 +1,51 @@
+package com.moonlightbox.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExtendInfoUtilTest {
+
+    @Test
+    void cachedResultIsSharedAndDeeplyImmutable() {
+        String json = "{\"author\":\"moon\",\"tags\":[\"a\",{\"k\":1}],\"meta\":{\"views\":3}}";
+        Map<String, Object> first = ExtendInfoUtil.parseObject(json);
+        long hits = ExtendInfoUtil.cacheHitCount();
+        Map<String, Object> second = ExtendInfoUtil.parseObject(new String(json));
+
+        assertThat(second).isSameAs(first);
+        assertThat(ExtendInfoUtil.cacheHitCount()).isEqualTo(hits + 1);
+        assertThatThrownBy(() -> first.put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> meta = (Map<String, Object>) first.get("meta");
+        assertThatThrownBy(() -> meta.put("views", 4)).isInstanceOf(UnsupportedOperationException.class);
+        @SuppressWarnings("unchecked")
+        List<Object> tags = (List<Object>) first.get("tags");
+        assertThatThrownBy(() -> tags.add("b")).isInstanceOf(UnsupportedOperationException.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> nested = (Map<String, Object>) tags.get(1);
+        assertThatThrownBy(nested::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void malformedInputIsCountedAndYieldsEmptyMap() {
+        long malformed = ExtendInfoUtil.malformedCount();
+
+        assertThat(ExtendInfoUtil.parseObject("{not json")).isEmpty();
+        assertThat(ExtendInfoUtil.parseToStringMap("[1,2]")).isEmpty();
+        assertThat(ExtendInfoUtil.malformedCount()).isEqualTo(malformed + 2);
+    }
+
+    @Test
+    void parseToStringMapKeepsScalarsOnly() {
+        Map<String, String> map = ExtendInfoUtil.parseToStringMap(
+                "{\"a\":\"x\",\"b\":2,\"c\":1.5,\"d\":true,\"e\":null,\"f\":{\"g\":1},\"a2\":[1]}");
+
+        assertThat(map).containsExactly(Map.entry("a", "x"), Map.entry("b", "2"), Map.entry("c", "1.5"), Map.entry("d", "true"));
+        assertThatThrownBy(() -> map.put("z", "1")).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
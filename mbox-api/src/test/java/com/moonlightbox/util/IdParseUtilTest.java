@@ -0,0 +1,158 @@
+package com.moonlightbox.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link IdParseUtil} 与参照实现 {@code Long.parseLong(id.trim().split(",")[0].trim())} 的对比：
+ * 固定种子的随机输入（符号、空白、逗号、Unicode 数字与空格、long 边界附近的大数）加上边界用例，
+ * 溢出判定另与 BigDecimal 交叉验证。失败时断言信息中带有输入原文，可直接复现
+ */
+class IdParseUtilTest {
+
+    private static final int ITERATIONS = 200_000;
+    private static final char[] ALPHABET = {
+            '0', '1', '2', '5', '7', '9', '0', '1', '9',
+            '-', '+', ',', ' ', '\t', '\n', '\u0000', 'a', 'x', '.', 'e',
+            '\u0663', '\uff11', '\u00a0', '\u3000'
+    };
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    @Test
+    void parseIdMatchesLongParseLongOnRandomInput() {
+        Random random = new Random(20261018L);
+        for (int i = 0; i < ITERATIONS; i++) {
+            String input = randomInput(random);
+            assertThat(IdParseUtil.parseId(input)).as("parseId(\"%s\")", escape(input)).isEqualTo(reference(input));
+        }
+    }
+
+    @Test
+    void parseIdsMatchesSplitAndParseOnRandomInput() {
+        Random random = new Random(7L);
+        for (int i = 0; i < ITERATIONS; i++) {
+            String input = randomInput(random) + ',' + randomInput(random) + ',' + randomInput(random);
+            int maxCount = 1 + random.nextInt(4);
+            assertThat(IdParseUtil.parseIds(input, maxCount)).as("parseIds(\"%s\", %d)", escape(input), maxCount)
+                    .isEqualTo(referenceIds(input, maxCount));
+        }
+    }
+
+    @Test
+    void overflowBoundaryAgreesWithBigDecimal() {
+        Random random = new Random(42L);
+        for (int i = 0; i < ITERATIONS; i++) {
+            // long 边界 ±1000 以内，以及 19～20 位的随机数
+            BigDecimal value = random.nextBoolean()
+                    ? (random.nextBoolean() ? LONG_MAX : LONG_MIN).add(BigDecimal.valueOf(random.nextInt(2001) - 1000))
+                    : new BigDecimal(randomDigits(random, 19 + random.nextInt(2)));
+            if (random.nextBoolean()) {
+                value = value.negate();
+            }
+            String text = value.toPlainString();
+            boolean fits = value.compareTo(LONG_MIN) > 0 && value.compareTo(LONG_MAX) <= 0;
+            assertThat(IdParseUtil.parseId(text)).as("parseId(\"%s\")", text)
+                    .isEqualTo(fits ? Long.valueOf(value.longValueExact()) : null);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", " ", "\t\n", ",", ",,", " , ", "+", "-", "+-1", "--1", "1-", "1 2", "1.0", "1e3", "0x10", "abc",
+            "9223372036854775808", "-9223372036854775809", "-9223372036854775808", "99999999999999999999",
+            "1\u00a0", "\u30001"
+    })
+    void invalidInputReturnsNull(String input) {
+        assertThat(IdParseUtil.parseId(input)).isNull();
+        assertThat(IdParseUtil.parseLongId(input)).isEqualTo(IdParseUtil.NO_ID);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "0", "-0", "+0", "1", "+1", "-1", "  42  ", "\t7\n", "42,", "42,abc", " 42 , 43", "007",
+            "9223372036854775807", "+9223372036854775807", "-9223372036854775807", "\u0663\uff11"
+    })
+    void validInputMatchesReference(String input) {
+        assertThat(IdParseUtil.parseId(input)).isNotNull().isEqualTo(reference(input));
+    }
+
+    @Test
+    void nullInput() {
+        assertThat(IdParseUtil.parseId(null)).isNull();
+        assertThat(IdParseUtil.parseIds(null, 10)).isNull();
+    }
+
+    private static Long reference(String input) {
+        try {
+            long value = Long.parseLong(input.trim().split(",")[0].trim());
+            return value == Long.MIN_VALUE ? null : value;
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static long[] referenceIds(String input, int maxCount) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String part : input.split(",", -1)) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Long id = reference(trimmed);
+            if (id == null) {
+                return null;
+            }
+            ids.add(id);
+        }
+        if (ids.isEmpty() || ids.size() > maxCount) {
+            return null;
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static String randomInput(Random random) {
+        int kind = random.nextInt(4);
+        if (kind == 0) {
+            // 合法数字外包空白 / 符号，可能溢出
+            List<String> parts = new ArrayList<>();
+            parts.add(random.nextBoolean() ? " " : "");
+            parts.add(random.nextInt(3) == 0 ? (random.nextBoolean() ? "-" : "+") : "");
+            parts.add(randomDigits(random, 1 + random.nextInt(20)));
+            parts.add(random.nextBoolean() ? "\t" : "");
+            return String.join("", parts);
+        }
+        int length = random.nextInt(kind == 1 ? 4 : 24);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String randomDigits(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : s.toCharArray()) {
+            sb.append(c < ' ' || c > '~' ? String.format("\\u%04x", (int) c) : String.valueOf(c));
+        }
+        return sb.toString();
+    }
+}
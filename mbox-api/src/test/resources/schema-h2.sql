@@ -0,0 +1,90 @@
+-- 测试用表结构：scripts/schema.sql 的 H2（MySQL 模式）版本，由测试上下文启动时执行。
+-- 与原脚本的差异：去掉 ENGINE / CHARSET 与触发器（H2 不支持 MySQL 触发器语法），索引名加表名前缀（H2 中索引名在 schema 内唯一）。
+-- 修改 scripts/schema.sql 时同步修改本文件
+
+-- 卡片组件（文章/卡片）
+CREATE TABLE IF NOT EXISTS content_card (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title       VARCHAR(256) NOT NULL DEFAULT '',
+    subtitle    VARCHAR(512) DEFAULT '',
+    image_url   VARCHAR(1024) DEFAULT NULL,
+    badge       VARCHAR(64) DEFAULT NULL,
+    content     TEXT,
+    media_url   VARCHAR(1024) DEFAULT NULL,
+    author      VARCHAR(64) DEFAULT '',
+    pub_date    VARCHAR(32) DEFAULT '',
+    category    VARCHAR(64) DEFAULT '',
+    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX content_card_idx_created_at_id (created_at, id),
+    INDEX content_card_idx_updated_at_id (updated_at, id)
+);
+
+-- 视频组件
+CREATE TABLE IF NOT EXISTS content_video (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title       VARCHAR(256) NOT NULL DEFAULT '',
+    subtitle    VARCHAR(512) DEFAULT '',
+    image_url   VARCHAR(1024) DEFAULT NULL,
+    badge       VARCHAR(64) DEFAULT NULL,
+    content     TEXT,
+    media_url   VARCHAR(1024) DEFAULT NULL,
+    duration    VARCHAR(32) DEFAULT '',
+    resolution  VARCHAR(32) DEFAULT '',
+    author      VARCHAR(64) DEFAULT '',
+    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    INDEX content_video_idx_created_at_id (created_at, id),
+    INDEX content_video_idx_updated_at_id (updated_at, id)
+);
+
+-- 图表组件
+CREATE TABLE IF NOT EXISTS content_chart (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title       VARCHAR(256) NOT NULL DEFAULT '',
+    subtitle    VARCHAR(512) DEFAULT '',
+    chart_type  VARCHAR(32) DEFAULT 'bar',
+    period      VARCHAR(32) DEFAULT '',
+    unit        VARCHAR(32) DEFAULT '',
+    created_at  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    data_updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX content_chart_idx_created_at_id (created_at, id),
+    INDEX content_chart_idx_updated_at_id (updated_at, id)
+);
+
+-- 图表数据明细（子表）
+CREATE TABLE IF NOT EXISTS content_chart_data (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    chart_id    BIGINT NOT NULL,
+    x_label     VARCHAR(256) NOT NULL,
+    y_value     DOUBLE NOT NULL,
+    sort_order  INT DEFAULT 0,
+    ts          DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '采样时间，时间分桶聚合（/api/chart/rollup）按此分桶',
+    INDEX content_chart_data_idx_chart_sort (chart_id, sort_order),
+    INDEX content_chart_data_idx_chart_ts (chart_id, ts),
+    FOREIGN KEY (chart_id) REFERENCES content_chart(id) ON DELETE CASCADE
+);
+
+-- 图表数据点的时间分桶聚合（可选持久化）：mbox.rollup.persist=true 时每次批量写入后累加，冷启动时代替扫描明细。
+-- bucket_start 为桶起点（本地时间，按 bucket_width 秒对齐，日桶从 0 点开始）
+CREATE TABLE IF NOT EXISTS content_chart_rollup (
+    chart_id     BIGINT NOT NULL,
+    bucket_width INT NOT NULL COMMENT '桶宽（秒）',
+    bucket_start DATETIME NOT NULL,
+    cnt          BIGINT NOT NULL,
+    sum_value    DOUBLE NOT NULL,
+    min_value    DOUBLE NOT NULL,
+    max_value    DOUBLE NOT NULL,
+    PRIMARY KEY (chart_id, bucket_width, bucket_start),
+    FOREIGN KEY (chart_id) REFERENCES content_chart(id) ON DELETE CASCADE
+);
+
+-- 删除记录（墓碑），供增量同步（/api/{type}/sync）下发删除
+CREATE TABLE IF NOT EXISTS content_tombstone (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    content_type VARCHAR(16) NOT NULL,
+    content_id   BIGINT NOT NULL,
+    deleted_at   DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX content_tombstone_idx_type_deleted_at_id (content_type, deleted_at, id)
+);